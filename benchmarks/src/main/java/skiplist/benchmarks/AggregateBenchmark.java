@@ -0,0 +1,98 @@
+package skiplist.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import skiplist.AggregateSkipListSet;
+import skiplist.AggregateSkipListSet.Stats;
+import skiplist.SkipListSet;
+
+
+/*
+*   Sum, min and max of a range of keys, from the aggregates of an
+*   AggregateSkipListSet against walking the range of a SkipListSet,
+*   and what keeping the aggregates costs to add and remove
+*
+* */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class AggregateBenchmark {
+
+
+    @Param({"1000000"})
+    int size;
+
+    @Param({"100", "10000", "1000000"})
+    int width;          //keys in every range we ask for
+
+
+    long[] keys;
+    SkipListSet<Long> plain;
+    AggregateSkipListSet<Long, Stats> aggregated;
+    int cursor;
+
+
+    @Setup(Level.Trial)
+    public void setUp(){
+        keys = Keys.shuffled(Keys.generate(Keys.Distribution.RANDOM, size, 42), 7);
+        plain = new SkipListSet<>();
+        aggregated = AggregateSkipListSet.stats(key -> key % 1000); //the score of a key
+        for(long key : keys){
+            plain.add(key);
+            aggregated.add(key);
+        }
+    }
+
+
+    //Keys are even and 0 to 2 * size, so a range of width keys is 2 * width long
+    private long nextFrom(){
+        int next = cursor;
+        cursor = next + 1 == size ? 0 : next + 1;
+        return keys[next] % Math.max(1, 2L * (size - width) + 1);
+    }
+
+
+    @Benchmark
+    public Stats aggregate(){
+        long from = nextFrom();
+        return aggregated.aggregate(from, from + 2L * width);
+    }
+
+    @Benchmark
+    public double walkRange(){
+        long from = nextFrom();
+        double sum = 0, min = Double.POSITIVE_INFINITY, max = Double.NEGATIVE_INFINITY;
+        for(long key : plain.subSet(from, from + 2L * width)){
+            double score = key % 1000;
+            sum += score;
+            min = Math.min(min, score);
+            max = Math.max(max, score);
+        }
+        return sum + min + max;
+    }
+
+
+    /*
+    *   A key out and back in, the size doesn't change
+    * */
+    @Benchmark
+    public boolean addRemovePlain(){
+        long key = keys[cursor];
+        cursor = cursor + 1 == size ? 0 : cursor + 1;
+        plain.remove(key);
+        return plain.add(key);
+    }
+
+    @Benchmark
+    public boolean addRemoveAggregated(){
+        long key = keys[cursor];
+        cursor = cursor + 1 == size ? 0 : cursor + 1;
+        aggregated.remove(key);
+        return aggregated.add(key);
+    }
+}
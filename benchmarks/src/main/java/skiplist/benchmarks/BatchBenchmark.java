@@ -0,0 +1,88 @@
+package skiplist.benchmarks;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import skiplist.SkipListSet;
+
+
+/*
+*   Sorted micro batches into a big set, one add per key against
+*   addAllSorted, and one remove per key against removeAllSorted
+*
+*   Every invocation adds a batch of new keys and removes it again,
+*   so the set keeps its size
+*
+* */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class BatchBenchmark {
+
+
+    @Param({"1000000"})
+    int size;
+
+    @Param({"1000", "10000"})
+    int batch;
+
+
+    SkipListSet<Long> set;
+    List<List<Long>> batches;   //sorted, keys that are never in the set
+    int cursor;
+
+
+    @Setup(Level.Trial)
+    public void setUp(){
+        long[] keys = Keys.generate(Keys.Distribution.RANDOM, size, 42);
+        set = new SkipListSet<>();
+        for(long key : keys){
+            set.add(key);
+        }
+
+        //Each batch is a run of consecutive misses somewhere in the set
+        Random rand = new Random(7);
+        batches = new ArrayList<>();
+        for(int b = 0; b < 64; b++){
+            long start = 2L * rand.nextInt(Math.max(size - 2 * batch, 1));
+            List<Long> sorted = new ArrayList<>(batch);
+            for(int i = 0; i < batch; i++){
+                sorted.add(start + 4L * i + 1);
+            }
+            batches.add(sorted);
+        }
+    }
+
+
+    private List<Long> next(){
+        List<Long> next = batches.get(cursor);
+        cursor = (cursor + 1) % batches.size();
+        return next;
+    }
+
+
+    @Benchmark
+    public boolean oneByOne(){
+        List<Long> keys = next();
+        for(Long key : keys){
+            set.add(key);
+        }
+        boolean removed = false;
+        for(Long key : keys){
+            removed |= set.remove(key);
+        }
+        return removed;
+    }
+
+    @Benchmark
+    public boolean sortedBatch(){
+        List<Long> keys = next();
+        set.addAllSorted(keys);
+        return set.removeAllSorted(keys);
+    }
+}
@@ -0,0 +1,33 @@
+package skiplist.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+
+/*
+*   Entry point of benchmarks.jar, takes the usual JMH command line
+*   and always adds the GC profiler, so every result comes with its
+*   allocation rate (gc.alloc.rate.norm is bytes per operation)
+*
+*   Example: java -jar benchmarks/target/benchmarks.jar SetBenchmark -p size=100000
+*
+* */
+public final class BenchmarkRunner {
+
+
+    private BenchmarkRunner(){
+    }
+
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        new Runner(new OptionsBuilder()
+                .parent(commandLine)
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
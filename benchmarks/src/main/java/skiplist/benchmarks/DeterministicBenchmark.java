@@ -0,0 +1,93 @@
+package skiplist.benchmarks;
+
+import java.util.Arrays;
+import java.util.SortedSet;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import skiplist.DeterministicSkipListSet;
+import skiplist.SkipListSet;
+
+
+/*
+*   Latency of every single operation, random towers against the
+*   deterministic 1-2-3 SkipList
+*
+*   SampleTime mode reports the percentiles, look at p0.99 and p0.999
+*
+*   order is how the set is built: RANDOM, or DESCENDING, the worst case
+*   for a deterministic list that doesn't keep its gaps small
+*
+* */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class DeterministicBenchmark {
+
+
+    @Param({"SkipListSet", "DeterministicSkipListSet"})
+    String impl;
+
+    @Param({"1000000"})
+    int size;
+
+    @Param({"RANDOM", "DESCENDING"})
+    String order;
+
+
+    Long[] hits;        //keys of the set in random order
+    Long[] misses;      //keys that are never in the set
+    SortedSet<Long> set;
+    int cursor;
+
+
+    @Setup(Level.Trial)
+    public void setUp(){
+        long[] generated = Keys.generate(Keys.Distribution.RANDOM, size, 42);
+        long[] lookups = Keys.shuffled(generated, 7);
+
+        hits = Keys.boxed(lookups);
+        misses = new Long[size];
+        for(int i = 0; i < size; i++){
+            misses[i] = lookups[i] + 1;
+        }
+
+        if(order.equals("DESCENDING")){
+            Arrays.sort(generated);
+            for(int i = 0, j = size - 1; i < j; i++, j--){
+                long swap = generated[i];
+                generated[i] = generated[j];
+                generated[j] = swap;
+            }
+        }
+
+        set = impl.equals("DeterministicSkipListSet") ? new DeterministicSkipListSet<>() : new SkipListSet<>();
+        for(long key : generated){
+            set.add(key);
+        }
+    }
+
+
+    private int next(){
+        int next = cursor;
+        cursor = next + 1 == size ? 0 : next + 1;
+        return next;
+    }
+
+
+    @Benchmark
+    public boolean containsHit(){
+        return set.contains(hits[next()]);
+    }
+
+    //Adds a key that is not there and takes it out again, so the size stays the same
+    @Benchmark
+    public boolean addRemove(){
+        Long key = misses[next()];
+        return set.add(key) & set.remove(key);
+    }
+}
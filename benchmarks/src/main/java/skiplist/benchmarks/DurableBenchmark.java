@@ -0,0 +1,61 @@
+package skiplist.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.*;
+
+import skiplist.DurableSkipListSet;
+
+
+/*
+*   Durable adds from a few threads, syncing every syncEvery records
+*
+*   With 1 every add is on disk when it returns, and the threads only
+*   share an fsync when they happen to wait for it at the same time
+*
+* */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@Threads(4)
+public class DurableBenchmark {
+
+
+    @Param({"1", "16", "256", "4096"})
+    int syncEvery;
+
+
+    Path directory;
+    DurableSkipListSet<Long> set;
+    final AtomicLong next = new AtomicLong();
+
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("durable-benchmark");
+        set = new DurableSkipListSet<>(directory, DurableSkipListSet.Codec.longs(), syncEvery, 1 << 20);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        set.close();
+        try(Stream<Path> files = Files.walk(directory)){
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        }
+    }
+
+
+    @Benchmark
+    public boolean add(){
+        return set.add(next.getAndIncrement());
+    }
+}
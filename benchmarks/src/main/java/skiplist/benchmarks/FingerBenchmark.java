@@ -0,0 +1,105 @@
+package skiplist.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import skiplist.SkipListSet;
+
+
+/*
+*   Searches from the heads against finger search and a Cursor,
+*   when every key lands next to the one before
+*
+*   SEQUENTIAL keys are appends, CLUSTERED ones are appends inside runs
+*   of Keys.CLUSTER keys, RANDOM shows what the finger costs when it doesn't help
+*
+*   Finger search is only for add and remove, lookups that want one use a Cursor
+*
+* */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class FingerBenchmark {
+
+
+    @Param({"100000", "1000000"})
+    int size;
+
+    @Param({"SEQUENTIAL", "CLUSTERED", "RANDOM"})
+    Keys.Distribution distribution;
+
+
+    Long[] keys;            //in insertion order
+    SkipListSet<Long> set;  //all the keys, for the lookups
+
+
+    @Setup(Level.Trial)
+    public void setUp(){
+        keys = Keys.boxed(Keys.generate(distribution, size, 42));
+        set = new SkipListSet<>();
+        for(Long key : keys){
+            set.add(key);
+        }
+    }
+
+
+    private SkipListSet<Long> insert(boolean finger){
+        SkipListSet<Long> built = new SkipListSet<>();
+        built.setFingerSearch(finger);
+        for(Long key : keys){
+            built.add(key);
+        }
+        return built;
+    }
+
+    @Benchmark
+    public SkipListSet<Long> insertAll(){
+        return insert(false);
+    }
+
+    @Benchmark
+    public SkipListSet<Long> insertAllFinger(){
+        return insert(true);
+    }
+
+    @Benchmark
+    public SkipListSet<Long> insertAllCursor(){
+        SkipListSet<Long> built = new SkipListSet<>();
+        SkipListSet<Long>.Cursor cursor = built.cursor();
+        for(Long key : keys){
+            cursor.add(key);
+        }
+        return built;
+    }
+
+
+    /*
+    *   Looks up every key in insertion order
+    * */
+    @Benchmark
+    public int containsAll(){
+        int found = 0;
+        for(Long key : keys){
+            if(set.contains(key)){
+                found++;
+            }
+        }
+        return found;
+    }
+
+    @Benchmark
+    public int containsAllCursor(){
+        SkipListSet<Long>.Cursor cursor = set.cursor();
+        int found = 0;
+        for(Long key : keys){
+            if(cursor.contains(key)){
+                found++;
+            }
+        }
+        return found;
+    }
+}
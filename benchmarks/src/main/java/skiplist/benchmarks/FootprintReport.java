@@ -0,0 +1,77 @@
+package skiplist.benchmarks;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.ref.Reference;
+import java.util.*;
+import java.util.function.Supplier;
+
+import skiplist.LongSkipListSet;
+import skiplist.UnrolledSkipListSet;
+
+
+/*
+*   Prints how many bytes of heap each set takes per element,
+*   not counting the Long keys themselves
+*
+*   Run with: java -cp benchmarks.jar skiplist.benchmarks.FootprintReport [size]
+*
+* */
+public final class FootprintReport {
+
+
+    private FootprintReport(){
+    }
+
+
+    public static void main(String[] args){
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        Long[] keys = Keys.boxed(Keys.generate(Keys.Distribution.RANDOM, size, 42));
+
+        for(String impl : new String[]{"SkipListSet", "TreeSet", "ConcurrentSkipListSet"}){
+            report(impl, size, () -> {
+                NavigableSet<Long> set = Keys.newSet(impl);
+                Collections.addAll(set, keys);
+                return set;
+            });
+        }
+
+        report("UnrolledSkipListSet", size, () -> {
+            UnrolledSkipListSet<Long> set = new UnrolledSkipListSet<>();
+            Collections.addAll(set, keys);
+            return set;
+        });
+
+        long[] primitiveKeys = Keys.generate(Keys.Distribution.RANDOM, size, 42);
+        report("LongSkipListSet", size, () -> {
+            LongSkipListSet set = new LongSkipListSet();
+            for(long key : primitiveKeys){
+                set.add(key);
+            }
+            return set;
+        });
+    }
+
+
+    /*
+    *   Heap used after building the set minus heap used before,
+    *   both after a full collection
+    * */
+    private static void report(String name, int size, Supplier<Object> build){
+        long before = usedHeap();
+        Object set = build.get();
+        long after = usedHeap();
+
+        System.out.printf("%-24s %8.1f bytes/element%n", name, (after - before) / (double) size);
+        Reference.reachabilityFence(set); //keep it reachable until we measured
+    }
+
+
+    private static long usedHeap(){
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        for(int i = 0; i < 5; i++){
+            System.gc();
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+}
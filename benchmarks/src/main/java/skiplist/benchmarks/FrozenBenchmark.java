@@ -0,0 +1,77 @@
+package skiplist.benchmarks;
+
+import java.util.SortedSet;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import skiplist.SkipListSet;
+
+
+/*
+*   Lookups on a SkipListSet against its frozen copy
+*
+* */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class FrozenBenchmark {
+
+
+    @Param({"SkipListSet", "FrozenSortedSet"})
+    String impl;
+
+    @Param({"1000", "100000", "1000000", "10000000"})
+    int size;
+
+
+    Long[] hits;        //keys of the set in random order
+    Long[] misses;      //keys that are never in the set
+    SortedSet<Long> set;
+    int cursor;
+
+
+    @Setup(Level.Trial)
+    public void setUp(){
+        long[] generated = Keys.generate(Keys.Distribution.RANDOM, size, 42);
+        long[] lookups = Keys.shuffled(generated, 7);
+
+        hits = Keys.boxed(lookups);
+        misses = new Long[size];
+        for(int i = 0; i < size; i++){
+            misses[i] = lookups[i] + 1;
+        }
+
+        SkipListSet<Long> built = new SkipListSet<>();
+        for(long key : generated){
+            built.add(key);
+        }
+        set = impl.equals("FrozenSortedSet") ? built.freeze() : built;
+    }
+
+
+    private int next(){
+        int next = cursor;
+        cursor = next + 1 == size ? 0 : next + 1;
+        return next;
+    }
+
+
+    @Benchmark
+    public boolean containsHit(){
+        return set.contains(hits[next()]);
+    }
+
+    @Benchmark
+    public boolean containsMiss(){
+        return set.contains(misses[next()]);
+    }
+
+    @Benchmark
+    public Long first(){
+        return set.first();
+    }
+}
@@ -0,0 +1,120 @@
+package skiplist.benchmarks;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+import skiplist.SkipListSet;
+
+
+/*
+*   Keys and sets shared by the benchmarks
+*
+*   Keys are always even numbers, so key + 1 is never in the set
+*   and can be used for lookups that miss
+*
+* */
+public final class Keys {
+
+
+    /*
+    *   How the keys are spread and in what order they are inserted
+    *       RANDOM:     every key in random order
+    *       SEQUENTIAL: ascending order
+    *       CLUSTERED:  runs of CLUSTER ascending keys, the runs in random order
+    * */
+    public enum Distribution { RANDOM, SEQUENTIAL, CLUSTERED }
+
+    static final int CLUSTER = 64;
+
+
+    private Keys(){
+    }
+
+
+    /*
+    *   size distinct keys in insertion order
+    * */
+    static long[] generate(Distribution distribution, int size, long seed){
+        long[] keys = new long[size];
+        for(int i = 0; i < size; i++){
+            keys[i] = 2L * i;
+        }
+
+        Random rand = new Random(seed);
+        switch (distribution){
+            case RANDOM:
+                shuffle(keys, rand);
+                break;
+            case CLUSTERED:
+                int clusters = (size + CLUSTER - 1) / CLUSTER;
+                int[] order = new int[clusters];
+                for(int i = 0; i < clusters; i++){
+                    order[i] = i;
+                }
+                for(int i = clusters - 1; i > 0; i--){
+                    int j = rand.nextInt(i + 1);
+                    int temp = order[i];
+                    order[i] = order[j];
+                    order[j] = temp;
+                }
+                long[] clustered = new long[size];
+                int at = 0;
+                for(int cluster : order){
+                    for(int i = cluster * CLUSTER; i < Math.min(size, (cluster + 1) * CLUSTER); i++){
+                        clustered[at++] = keys[i];
+                    }
+                }
+                keys = clustered;
+                break;
+            default:
+                break;
+        }
+        return keys;
+    }
+
+
+    /*
+    *   Same keys in a random order, for lookups
+    * */
+    static long[] shuffled(long[] keys, long seed){
+        long[] copy = keys.clone();
+        shuffle(copy, new Random(seed));
+        return copy;
+    }
+
+
+    static Long[] boxed(long[] keys){
+        Long[] boxed = new Long[keys.length];
+        for(int i = 0; i < keys.length; i++){
+            boxed[i] = keys[i];
+        }
+        return boxed;
+    }
+
+
+    private static void shuffle(long[] keys, Random rand){
+        for(int i = keys.length - 1; i > 0; i--){
+            int j = rand.nextInt(i + 1);
+            long temp = keys[i];
+            keys[i] = keys[j];
+            keys[j] = temp;
+        }
+    }
+
+
+    /*
+    *   Empty set of the given implementation
+    * */
+    static NavigableSet<Long> newSet(String impl){
+        switch (impl){
+            case "SkipListSet":
+                return new SkipListSet<>();
+            case "TreeSet":
+                return new TreeSet<>();
+            case "ConcurrentSkipListSet":
+                return new ConcurrentSkipListSet<>();
+            default:
+                throw new IllegalArgumentException("unknown set: " + impl);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package skiplist.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import skiplist.LevelGenerator;
+import skiplist.SkipListSet;
+
+
+/*
+*   SkipListSet with different promotion probabilities
+*
+*   Heights are seeded, so every run builds exactly the same lists.
+*   Lower promotions give shorter towers and less memory per element,
+*   but longer walks on every level
+*
+* */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class LevelGeneratorBenchmark {
+
+
+    @Param({"0.5", "0.25", "0.367879"})
+    double promotion;
+
+    @Param({"1000", "100000", "1000000"})
+    int size;
+
+
+    Long[] hits;        //keys of the set in random order
+    Long[] misses;      //keys that are never in the set
+    SkipListSet<Long> set;
+    int cursor;
+
+
+    @Setup(Level.Trial)
+    public void setUp(){
+        long[] generated = Keys.generate(Keys.Distribution.RANDOM, size, 42);
+        long[] lookups = Keys.shuffled(generated, 7);
+
+        hits = Keys.boxed(lookups);
+        misses = new Long[size];
+        for(int i = 0; i < size; i++){
+            misses[i] = lookups[i] + 1;
+        }
+
+        set = new SkipListSet<>(LevelGenerator.seeded(promotion, 42));
+        for(long key : generated){
+            set.add(key);
+        }
+    }
+
+
+    private int next(){
+        int next = cursor;
+        cursor = next + 1 == size ? 0 : next + 1;
+        return next;
+    }
+
+
+    @Benchmark
+    public boolean containsHit(){
+        return set.contains(hits[next()]);
+    }
+
+    @Benchmark
+    public boolean containsMiss(){
+        return set.contains(misses[next()]);
+    }
+
+    /*
+    *   Adds a key that is not there and takes it out again,
+    *   so the set keeps its size
+    * */
+    @Benchmark
+    public boolean addRemove(){
+        Long key = misses[next()];
+        set.add(key);
+        return set.remove(key);
+    }
+}
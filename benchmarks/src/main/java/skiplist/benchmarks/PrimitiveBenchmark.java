@@ -0,0 +1,80 @@
+package skiplist.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import skiplist.LongSkipListSet;
+import skiplist.SkipListSet;
+
+
+/*
+*   LongSkipListSet next to SkipListSet<Long> with the same keys
+*
+*   The boxed calls box the key like real callers do, run it with
+*   the GC profiler to see the allocation each one costs
+*
+* */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PrimitiveBenchmark {
+
+
+    @Param({"1000", "100000", "1000000"})
+    int size;
+
+    long[] hits;
+    LongSkipListSet primitive;
+    SkipListSet<Long> boxed;
+    int cursor;
+
+
+    @Setup(Level.Trial)
+    public void setUp(){
+        long[] keys = Keys.generate(Keys.Distribution.RANDOM, size, 42);
+        hits = Keys.shuffled(keys, 7);
+
+        primitive = new LongSkipListSet();
+        boxed = new SkipListSet<>();
+        for(long key : keys){
+            primitive.add(key);
+            boxed.add(key);
+        }
+    }
+
+
+    private long next(){
+        int next = cursor;
+        cursor = next + 1 == size ? 0 : next + 1;
+        return hits[next];
+    }
+
+
+    @Benchmark
+    public boolean primitiveContains(){
+        return primitive.contains(next());
+    }
+
+    @Benchmark
+    public boolean boxedContains(){
+        return boxed.contains(next());
+    }
+
+    @Benchmark
+    public boolean primitiveRemoveAdd(){
+        long key = next();
+        primitive.remove(key);
+        return primitive.add(key);
+    }
+
+    @Benchmark
+    public boolean boxedRemoveAdd(){
+        long key = next();
+        boxed.remove(key);
+        return boxed.add(key);
+    }
+}
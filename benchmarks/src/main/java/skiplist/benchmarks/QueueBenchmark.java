@@ -0,0 +1,92 @@
+package skiplist.benchmarks;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+
+/*
+*   The set used as an ordered work queue: take the smallest element
+*   and put in a new one that is greater than all of them
+*
+*   Compares SkipListSet.pollFirst with TreeSet.pollFirst and PriorityQueue.poll
+*
+* */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QueueBenchmark {
+
+
+    @Param({"SkipListSet", "TreeSet", "PriorityQueue"})
+    String impl;
+
+    @Param({"1000", "100000", "1000000"})
+    int size;
+
+    Queue<Long> queue;
+    long next;
+
+
+    @Setup(Level.Trial)
+    public void setUp(){
+        if(impl.equals("PriorityQueue")){
+            queue = new PriorityQueue<>();
+        }else{
+            queue = new SetQueue(Keys.newSet(impl));
+        }
+        for(next = 0; next < size; next++){
+            queue.offer(next);
+        }
+    }
+
+
+    @Benchmark
+    public Long pollAndOffer(){
+        Long first = queue.poll();
+        queue.offer(next++);
+        return first;
+    }
+
+
+    /*
+    *   A sorted set seen as a queue, poll takes the first element
+    * */
+    static final class SetQueue extends AbstractQueue<Long> {
+
+        final NavigableSet<Long> set;
+
+        SetQueue(NavigableSet<Long> set){
+            this.set = set;
+        }
+
+        @Override
+        public boolean offer(Long key) {
+            return set.add(key);
+        }
+
+        @Override
+        public Long poll() {
+            return set.pollFirst();
+        }
+
+        @Override
+        public Long peek() {
+            return set.isEmpty() ? null : set.first();
+        }
+
+        @Override
+        public Iterator<Long> iterator() {
+            return set.iterator();
+        }
+
+        @Override
+        public int size() {
+            return set.size();
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package skiplist.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import skiplist.SkipListSet;
+
+
+/*
+*   Expiring the oldest keys of a SkipListSet: a remove for every key
+*   against removeRange, and split + concat of the whole list
+*
+*   Every removal iteration starts from a fresh list, so it is one shot
+*
+* */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class RangeRemovalBenchmark {
+
+
+    @Param({"1000000"})
+    int size;
+
+    @Param({"1000", "100000"})
+    int expired;        //keys older than the cutoff
+
+
+    long[] keys;
+    SkipListSet<Long> set;
+
+
+    @Setup(Level.Trial)
+    public void generate(){
+        keys = Keys.generate(Keys.Distribution.SEQUENTIAL, size, 42);
+    }
+
+    @Setup(Level.Iteration)
+    public void setUp(){
+        set = new SkipListSet<>();
+        for(long key : Keys.shuffled(keys, 7)){
+            set.add(key);
+        }
+    }
+
+
+    @Benchmark
+    public int removeEach(){
+        int removed = 0;
+        for(int i = 0; i < expired; i++){
+            if(set.remove(keys[i])){
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    @Benchmark
+    public int removeRange(){
+        return set.removeRange(keys[0], keys[expired]);
+    }
+
+
+    /*
+    *   Cut at the cutoff and join again, the list ends up as it was
+    * */
+    @Benchmark
+    public int splitConcat(){
+        SkipListSet<Long> newer = set.split(keys[expired]);
+        int moved = newer.size();
+        set.concat(newer);
+        return moved;
+    }
+}
@@ -0,0 +1,43 @@
+package skiplist.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import skiplist.SkipListSet;
+
+
+/*
+*   reBalance gives every element a new height, one pass over the list
+*
+* */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class ReBalanceBenchmark {
+
+
+    @Param({"1000", "100000", "1000000", "10000000"})
+    int size;
+
+    SkipListSet<Long> set;
+
+
+    @Setup(Level.Trial)
+    public void setUp(){
+        set = new SkipListSet<>();
+        for(long key : Keys.generate(Keys.Distribution.RANDOM, size, 42)){
+            set.add(key);
+        }
+    }
+
+
+    @Benchmark
+    public SkipListSet<Long> reBalance(){
+        set.reBalance();
+        return set;
+    }
+}
@@ -0,0 +1,120 @@
+package skiplist.benchmarks;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+
+/*
+*   Main operations of SkipListSet next to TreeSet and ConcurrentSkipListSet,
+*   at several sizes and key distributions
+*
+*   Point operations are one call each, whole set operations
+*   (insertAll, bulkAddAll, iterate) go through every key
+*
+* */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class SetBenchmark {
+
+
+    @Param({"SkipListSet", "TreeSet", "ConcurrentSkipListSet"})
+    String impl;
+
+    @Param({"1000", "100000", "1000000", "10000000"})
+    int size;
+
+    @Param({"RANDOM", "SEQUENTIAL", "CLUSTERED"})
+    Keys.Distribution distribution;
+
+
+    Long[] keys;        //in insertion order
+    List<Long> keyList;
+    Long[] hits;        //same keys in random order
+    Long[] misses;      //keys that are never in the set
+    NavigableSet<Long> set;
+    int cursor;
+
+
+    @Setup(Level.Trial)
+    public void setUp(){
+        long[] generated = Keys.generate(distribution, size, 42);
+        long[] lookups = Keys.shuffled(generated, 7);
+
+        keys = Keys.boxed(generated);
+        keyList = Arrays.asList(keys);
+        hits = Keys.boxed(lookups);
+        misses = new Long[size];
+        for(int i = 0; i < size; i++){
+            misses[i] = lookups[i] + 1;
+        }
+
+        set = Keys.newSet(impl);
+        Collections.addAll(set, keys);
+    }
+
+
+    private int next(){
+        int next = cursor;
+        cursor = next + 1 == size ? 0 : next + 1;
+        return next;
+    }
+
+
+    @Benchmark
+    public boolean containsHit(){
+        return set.contains(hits[next()]);
+    }
+
+    @Benchmark
+    public boolean containsMiss(){
+        return set.contains(misses[next()]);
+    }
+
+
+    /*
+    *   Deletes a key and puts it back, the set keeps its size
+    * */
+    @Benchmark
+    public boolean removeAddChurn(){
+        Long key = hits[next()];
+        set.remove(key);
+        return set.add(key);
+    }
+
+
+    @Benchmark
+    public void iterate(Blackhole blackhole){
+        for(Long key : set){
+            blackhole.consume(key);
+        }
+    }
+
+
+    /*
+    *   Builds a set with one add per key, random or sequential
+    *   inserts depending on the distribution
+    * */
+    @Benchmark
+    public NavigableSet<Long> insertAll(){
+        NavigableSet<Long> built = Keys.newSet(impl);
+        for(Long key : keys){
+            built.add(key);
+        }
+        return built;
+    }
+
+
+    @Benchmark
+    public NavigableSet<Long> bulkAddAll(){
+        NavigableSet<Long> built = Keys.newSet(impl);
+        built.addAll(keyList);
+        return built;
+    }
+}
@@ -0,0 +1,82 @@
+package skiplist.benchmarks;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import skiplist.LockFreeSkipListSet;
+import skiplist.ShardedSkipListSet;
+import skiplist.SkipListSet;
+
+
+/*
+*   Many threads on one set, half lookups and half writes on random keys
+*
+*   ShardedSkipListSet against one SkipListSet behind a lock, the lock free
+*   set and ConcurrentSkipListSet. Run it with -t to change the threads
+*
+* */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+@Threads(4)
+public class ShardBenchmark {
+
+
+    @Param({"ShardedSkipListSet", "SynchronizedSkipListSet", "LockFreeSkipListSet", "ConcurrentSkipListSet"})
+    String impl;
+
+    @Param({"1000000"})
+    int size;
+
+
+    Set<Long> set;
+
+
+    @Setup(Level.Trial)
+    public void setUp(){
+        long[] keys = Keys.generate(Keys.Distribution.RANDOM, size, 42);
+        List<Long> list = new ArrayList<>(size);
+        for(long key : keys){
+            list.add(key);
+        }
+        switch (impl){
+            case "ShardedSkipListSet":
+                set = new ShardedSkipListSet<>(64, list);
+                break;
+            case "SynchronizedSkipListSet":
+                set = Collections.synchronizedSortedSet(new SkipListSet<>(list));
+                break;
+            case "LockFreeSkipListSet":
+                set = new LockFreeSkipListSet<>(list);
+                break;
+            case "ConcurrentSkipListSet":
+                set = new ConcurrentSkipListSet<>(list);
+                break;
+            default:
+                throw new IllegalArgumentException("unknown set: " + impl);
+        }
+    }
+
+
+    //Keys of the set are spread up to about 2 * size, so half the lookups miss
+    @Benchmark
+    public boolean mixed(){
+        ThreadLocalRandom rand = ThreadLocalRandom.current();
+        Long key = (long) rand.nextInt(2 * size);
+        switch (rand.nextInt(4)){
+            case 0:
+                return set.add(key);
+            case 1:
+                return set.remove(key);
+            default:
+                return set.contains(key);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package skiplist.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import skiplist.SkipListSet;
+import skiplist.SkipListSnapshot;
+
+
+/*
+*   A report over the whole set through a toArray copy against a snapshot,
+*   and what an open snapshot costs the writers
+*
+* */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class SnapshotBenchmark {
+
+
+    @Param({"100000", "1000000"})
+    int size;
+
+
+    SkipListSet<Long> set;
+    Long[] keys;        //keys of the set in random order
+    int cursor;
+
+
+    @Setup(Level.Trial)
+    public void setUp(){
+        long[] generated = Keys.generate(Keys.Distribution.RANDOM, size, 42);
+        keys = Keys.boxed(Keys.shuffled(generated, 7));
+        set = new SkipListSet<>();
+        for(long key : generated){
+            set.add(key);
+        }
+    }
+
+
+    @Benchmark
+    public long reportCopy(){
+        long sum = 0;
+        for(Object key : set.toArray()){
+            sum += (Long) key;
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long reportSnapshot(){
+        long sum = 0;
+        try(SkipListSnapshot<Long> snapshot = set.snapshot()){
+            for(Long key : snapshot){
+                sum += key;
+            }
+        }
+        return sum;
+    }
+
+
+    /*
+    *   Removes a key and adds it back, with no snapshot and
+    *   with one taken every 1000 writes
+    * */
+    @Benchmark
+    @OperationsPerInvocation(1000)
+    public boolean writes(){
+        return write(false);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(1000)
+    public boolean writesWithSnapshot(){
+        return write(true);
+    }
+
+    private boolean write(boolean snapshot){
+        SkipListSnapshot<Long> taken = snapshot ? set.snapshot() : null;
+        boolean changed = false;
+        for(int i = 0; i < 1000; i++){
+            Long key = keys[cursor];
+            cursor = cursor + 1 == size ? 0 : cursor + 1;
+            changed |= set.remove(key);
+            changed |= set.add(key);
+        }
+        if(taken != null){
+            taken.close();
+        }
+        return changed;
+    }
+}
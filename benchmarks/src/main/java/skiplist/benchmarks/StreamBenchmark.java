@@ -0,0 +1,53 @@
+package skiplist.benchmarks;
+
+import java.util.NavigableSet;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+
+/*
+*   Sum of every element with a sequential and a parallel stream
+*
+*   SkipListSet splits at the middle position through the express levels,
+*   TreeSet and ConcurrentSkipListSet are there to compare
+*
+* */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class StreamBenchmark {
+
+
+    @Param({"SkipListSet", "TreeSet", "ConcurrentSkipListSet"})
+    String impl;
+
+    @Param({"1000000", "10000000"})
+    int size;
+
+
+    NavigableSet<Long> set;
+
+
+    @Setup(Level.Trial)
+    public void setUp(){
+        set = Keys.newSet(impl);
+        for(long key : Keys.generate(Keys.Distribution.RANDOM, size, 42)){
+            set.add(key);
+        }
+    }
+
+
+    @Benchmark
+    public long sequentialSum(){
+        return set.stream().mapToLong(Long::longValue).sum();
+    }
+
+    @Benchmark
+    public long parallelSum(){
+        return set.parallelStream().mapToLong(Long::longValue).sum();
+    }
+}
@@ -0,0 +1,83 @@
+package skiplist.benchmarks;
+
+import java.util.SortedSet;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import skiplist.SkipListSet;
+import skiplist.UnrolledSkipListSet;
+
+
+/*
+*   Scans and lookups on SkipListSet against UnrolledSkipListSet,
+*   one item per element against blocks of elements
+*
+* */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class UnrolledBenchmark {
+
+
+    @Param({"SkipListSet", "UnrolledSkipListSet"})
+    String impl;
+
+    @Param({"1000000", "10000000"})
+    int size;
+
+
+    Long[] hits;        //keys of the set in random order
+    SortedSet<Long> set;
+
+
+    @Setup(Level.Trial)
+    public void setUp(){
+        long[] generated = Keys.generate(Keys.Distribution.RANDOM, size, 42);
+        hits = Keys.boxed(Keys.shuffled(generated, 7));
+
+        set = impl.equals("UnrolledSkipListSet") ? new UnrolledSkipListSet<>() : new SkipListSet<>();
+        for(long key : generated){
+            set.add(key);
+        }
+    }
+
+
+    @Benchmark
+    public long iterate(){
+        long sum = 0;
+        for(Long key : set){
+            sum += key;
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public Object[] toArray(){
+        return set.toArray();
+    }
+
+    @Benchmark
+    public int hashCodeAll(){
+        return set.hashCode();
+    }
+
+
+    /*
+    *   A million lookups of keys in the set
+    * */
+    @Benchmark
+    @OperationsPerInvocation(1000000)
+    public int containsHit(){
+        int found = 0;
+        for(int i = 0; i < 1000000; i++){
+            if(set.contains(hits[i])){
+                found++;
+            }
+        }
+        return found;
+    }
+}
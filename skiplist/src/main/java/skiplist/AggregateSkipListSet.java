@@ -0,0 +1,313 @@
+package skiplist;
+
+import java.util.*;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+
+
+/*
+*   This Object represent a SkipListSet that keeps an aggregate of the
+*   elements under every link, so the aggregate of any range of it is
+*   O(log n) no matter how many elements the range has
+*
+*   The aggregate is given as a monoid: an identity, the aggregate of one
+*   element and an associative combine. combine always gets the smaller
+*   elements on the left, so it doesn't have to be commutative, and it is
+*   never undone, so min and max work just like sum and count.
+*   stats(score) gives count, sum, min and max of a score
+*
+*   The link of an item on level i keeps the aggregate of the elements
+*   after the item up to the one the link points at, that one included,
+*   or up to the end if it points nowhere. Above the bottom that is the
+*   combination of the links of level i - 1 it jumps over, about two of
+*   them, so add and remove only combine O(log n) times. Bulk changes
+*   like addAll or removeIf build all of them again in O(n)
+*
+* */
+public class AggregateSkipListSet <T extends Comparable<T>, A> extends SkipListSet<T> {
+
+
+    private final A identity;                               //aggregate of no elements
+    private final Function<? super T, ? extends A> lift;    //aggregate of one element
+    private final BinaryOperator<A> combine;                //aggregate of two ranges, the left one first
+
+
+    /*
+    *   Constructor that returns an empty SkipList
+    *
+    *   @param: A identity, the aggregate of no elements
+    *   @param: Function lift, the aggregate of one element
+    *   @param: BinaryOperator combine, associative, left range first
+    * */
+    public AggregateSkipListSet(A identity, Function<? super T, ? extends A> lift, BinaryOperator<A> combine){
+        this(identity, lift, combine, LevelGenerator.geometric());
+    }
+
+
+    /*
+    *   Same as above, with the heights coming from levelGenerator
+    * */
+    public AggregateSkipListSet(A identity, Function<? super T, ? extends A> lift, BinaryOperator<A> combine,
+                                LevelGenerator levelGenerator){
+        this(identity, lift, combine, levelGenerator, MAX_HEIGHT);
+    }
+
+
+    /*
+    *   Same as above, and no tower is taller than maxHeight
+    * */
+    public AggregateSkipListSet(A identity, Function<? super T, ? extends A> lift, BinaryOperator<A> combine,
+                                LevelGenerator levelGenerator, int maxHeight){
+        super(levelGenerator, maxHeight);
+        this.identity = identity;
+        this.lift = Objects.requireNonNull(lift);
+        this.combine = Objects.requireNonNull(combine);
+        linksRebuilt(); //the heads were made before we had an identity
+    }
+
+
+    /*
+    *   A set that keeps count, sum, min and max of score(element)
+    * */
+    public static <T extends Comparable<T>> AggregateSkipListSet<T, Stats> stats(ToDoubleFunction<? super T> score){
+        Objects.requireNonNull(score);
+        return new AggregateSkipListSet<>(Stats.EMPTY, t -> Stats.of(score.applyAsDouble(t)), Stats::combine);
+    }
+
+
+    /*
+    *   Aggregate of the whole set
+    * */
+    public A aggregate(){
+        return aggregateRange(null, false, null, false);
+    }
+
+
+    /*
+    *   Aggregate of the elements from fromElement, inclusive,
+    *   to toElement, exclusive, like subSet
+    * */
+    public A aggregate(T fromElement, T toElement){
+        return aggregate(fromElement, true, toElement, false);
+    }
+
+
+    /*
+    *   Aggregate of the elements between fromElement and toElement
+    *
+    *   @param  T fromElement
+    *   @param  boolean fromInclusive
+    *   @param  T toElement
+    *   @param  boolean toInclusive
+    *   @return A
+    * */
+    public A aggregate(T fromElement, boolean fromInclusive, T toElement, boolean toInclusive){
+        Objects.requireNonNull(fromElement);
+        Objects.requireNonNull(toElement);
+        if(fromElement.compareTo(toElement) > 0){
+            throw new IllegalArgumentException("fromElement > toElement");
+        }
+        return aggregateRange(fromElement, fromInclusive, toElement, toInclusive);
+    }
+
+
+    /*
+    *   Aggregate of the elements after from and before to,
+    *   a null bound means the list has no such bound
+    *
+    *   We start at the last item before the range and take the tallest
+    *   link that still ends inside it, going up while the taller one does
+    *   and down when the link overshoots. Like a finger search, that is
+    *   O(log n) links, each one with the aggregate of everything it jumps over
+    * */
+    private A aggregateRange(T from, boolean fromInclusive, T to, boolean toInclusive){
+        SkipListSetItem<T> temp = from == null ? null : fromInclusive ? lowerItem(from) : floorItem(from);
+        if(temp == null){
+            temp = heads;
+        }
+
+        int levels = levelsInUse();
+        A result = identity;
+        int level = 0;
+        while (true){
+            while (level + 1 < Math.min(temp.right.length, levels) && endsInside(temp.right[level + 1], to, toInclusive)){
+                level++;
+            }
+
+            SkipListSetItem<T> next = temp.right[level];
+            if(endsInside(next, to, toInclusive)){
+                result = combine.apply(result, aggregateOf(temp, level));
+                if(next == null){ //it went until the end
+                    return result;
+                }
+                temp = next;
+            }else if(level == 0){
+                return result;
+            }else{
+                level--;
+            }
+        }
+    }
+
+    //True if a link ending at next has nothing after to, the end of the list is only inside if there is no to
+    private static <T extends Comparable<T>> boolean endsInside(SkipListSetItem<T> next, T to, boolean toInclusive){
+        if(next == null){
+            return to == null;
+        }
+        if(to == null){
+            return true;
+        }
+        int c = next.payload.compareTo(to);
+        return c < 0 || toInclusive && c == 0;
+    }
+
+
+    @SuppressWarnings("unchecked")
+    private A aggregateOf(SkipListSetItem<T> item, int level){
+        return (A) ((AggregateItem<T>) item).aggregates[level];
+    }
+
+
+    @Override
+    SkipListSetItem<T> newItem(T payload, int height){
+        return new AggregateItem<>(payload, height);
+    }
+
+
+    //split gives the upper half the same aggregate
+    @Override
+    SkipListSet<T> newList(LevelGenerator levelGenerator, int maxHeight){
+        return new AggregateSkipListSet<T, A>(identity, lift, combine, levelGenerator, maxHeight);
+    }
+
+
+    /*
+    *   Links of other only have our aggregates if they were made with the
+    *   same identity, lift and combine, like the two halves of a split
+    * */
+    @Override
+    boolean canAdopt(SkipListSet<T> other){
+        if(!super.canAdopt(other)){
+            return false;
+        }
+        AggregateSkipListSet<?, ?> same = (AggregateSkipListSet<?, ?>) other;
+        return Objects.equals(identity, same.identity) && lift == same.lift && combine == same.combine;
+    }
+
+
+    /*
+    *   The bottom link has the element it points at, a link above
+    *   combines the links of the level below from item to where it points
+    * */
+    @Override
+    void linkChanged(SkipListSetItem<T> item, int level){
+        Object[] aggregates = ((AggregateItem<T>) item).aggregates;
+        SkipListSetItem<T> end = item.right[level];
+        if(level == 0){
+            aggregates[0] = end == null ? identity : lift.apply(end.payload);
+            return;
+        }
+
+        A result = aggregateOf(item, level - 1);
+        for(SkipListSetItem<T> temp = item.right[level - 1]; temp != end; temp = temp.right[level - 1]){
+            result = combine.apply(result, aggregateOf(temp, level - 1));
+        }
+        aggregates[level] = result;
+    }
+
+
+    /*
+    *   Every level from the bottom, every link of a level once
+    * */
+    @Override
+    void linksRebuilt(){
+        int levels = levelsInUse();
+        for(int level = 0; level < levels; level++){
+            for(SkipListSetItem<T> temp = heads; temp != null; temp = temp.right[level]){
+                linkChanged(temp, level);
+            }
+        }
+    }
+
+
+    /*
+    *   Item with the aggregate of each of its links
+    * */
+    static final class AggregateItem<T extends Comparable<T>> extends SkipListSetItem<T> {
+        Object[] aggregates;    //set by resize, which runs before any initializer here would
+
+
+        AggregateItem(T payload, int height){
+            super(payload, height);
+        }
+
+        @Override
+        void resize(int height){
+            super.resize(height);
+            aggregates = new Object[height];
+        }
+    }
+
+
+    /*
+    *   Count, sum, min and max of a score, what stats(score) keeps
+    *
+    *   Without elements min is +Infinity and max is -Infinity
+    * */
+    public static final class Stats {
+
+        static final Stats EMPTY = new Stats(0, 0, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY);
+
+        private final long count;
+        private final double sum;
+        private final double min;
+        private final double max;
+
+        private Stats(long count, double sum, double min, double max){
+            this.count = count;
+            this.sum = sum;
+            this.min = min;
+            this.max = max;
+        }
+
+        static Stats of(double score){
+            return new Stats(1, score, score, score);
+        }
+
+        Stats combine(Stats other){
+            if(other.count == 0){
+                return this;
+            }
+            if(count == 0){
+                return other;
+            }
+            return new Stats(count + other.count, sum + other.sum, Math.min(min, other.min), Math.max(max, other.max));
+        }
+
+        public long getCount(){
+            return count;
+        }
+
+        public double getSum(){
+            return sum;
+        }
+
+        public double getMin(){
+            return min;
+        }
+
+        public double getMax(){
+            return max;
+        }
+
+        public double getAverage(){
+            return count == 0 ? 0 : sum / count;
+        }
+
+        @Override
+        public String toString(){
+            return String.format("count=%d sum=%s min=%s max=%s", count, sum, min, max);
+        }
+    }
+}
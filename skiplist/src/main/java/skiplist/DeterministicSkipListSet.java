@@ -0,0 +1,633 @@
+package skiplist;
+
+import java.util.*;
+
+
+/*
+*   This Object represent a deterministic 1-2-3 SkipList sorted set,
+*   following Munro, Papadakis and Sedgewick
+*
+*   There are no random heights. Every level is a linked list of nodes, and
+*   every node above the bottom has a gap: the nodes of the level below
+*   from its down link up to the one with the same key, which is the node
+*   itself one level lower. Between two towers of the same height there
+*   have to be 1 to 3 shorter ones, so the invariant is that every gap has
+*   2 to 4 nodes. A level has at most half the nodes of the one below it,
+*   the height is at most log base 2 of the size plus one and every search,
+*   add and remove is O(log n) in the worst case, whatever order the keys
+*   come in, without ever rebuilding the towers.
+*
+*   Both add and remove go top down and fix gaps on the way, so they never
+*   come back up:
+*       add:    a gap of 4 is split by raising its second node, two gaps
+*               of 2 are left, so the level below can take one more
+*       remove: a gap of 2 borrows a node from a neighbour gap or merges
+*               with it, so the level below can lose one
+*
+*   A node above the bottom has the key of the last node of its gap, the
+*   last node of every level has no key and stands for the end of the keys.
+*   Nodes are singly linked, so a node is often added or removed by
+*   moving keys between it and the one after it
+*
+* */
+public class DeterministicSkipListSet <T extends Comparable<T>> extends AbstractSet<T> implements SortedSet<T> {
+
+
+    private final Node<T> bottom = new Node<>(null, null, null);   //Below the bottom level, its key is the one we look for
+    private final Node<T> tail = new Node<>(null, null, null);     //After the last node of every level
+    private Node<T> head;           //The only node of the top level, with no key
+
+    private int size = 0;           //keeps track of how many elements are on the SkipList
+    private int modCount = 0;       //Counts every change of structure, so iterators can notice them
+
+
+    /*
+    *   Constructor that returns an empty SkipList
+    *
+    * */
+    public DeterministicSkipListSet(){
+        bottom.right = bottom;
+        bottom.down = bottom;
+        tail.right = tail;
+        head = new Node<>(null, tail, bottom);
+    }
+
+
+    /*
+    *   Constructor that returns a populated SkipList Set
+    *   @param: A generic Collection
+    *
+    * */
+    public DeterministicSkipListSet(Collection<? extends T> c){
+        this();
+        addAll(c);
+    }
+
+
+    /*
+    *   Compares t with the key of node, a node with no key goes after everything
+    * */
+    private static <T extends Comparable<T>> int compare(T t, Node<T> node){
+        return node.key == null ? -1 : t.compareTo(node.key);
+    }
+
+    //True if both nodes have the same key, or both have none
+    private static boolean sameKey(Node<?> a, Node<?> b){
+        return a.key == null ? b.key == null : a.key.equals(b.key);
+    }
+
+
+    //True if the gap of node has 4 nodes, the most it can have
+    private boolean fullGap(Node<T> node){
+        Node<T> fourth = node.down.right.right.right;
+        return fourth != tail && sameKey(node, fourth);
+    }
+
+    //True if the gap of node has 2 nodes, the fewest it can have
+    private boolean thinGap(Node<T> node){
+        return sameKey(node.down.right, node);
+    }
+
+
+    /*
+    *   Returns true if the set has o
+    *
+    *   Every key above the bottom is also on the bottom,
+    *   so we can stop as soon as we see it
+    * */
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean contains(Object o) {
+        T t = (T) Objects.requireNonNull(o);
+        Node<T> temp = head;
+        while (temp != bottom){
+            int c = compare(t, temp);
+            if(c == 0){
+                return true;
+            }
+            temp = c < 0 ? temp.down : temp.right;
+        }
+        return false;
+    }
+
+
+    /*
+    *   We add t to our List, false if it was already there
+    *
+    *   On every level we stop at the node whose gap has t, and if that gap
+    *   has 4 nodes we raise the second one, the node keeps the first two
+    *   and a new one gets the last two. On the bottom the same split adds t: the
+    *   bottom has the key t, so the raised node is a new one
+    *
+    *   If the top level ends up with two nodes, a new head goes on top,
+    *   even if t was already there
+    * */
+    @Override
+    public boolean add(T t) {
+        Objects.requireNonNull(t);
+        Node<T> temp = head;
+        boolean added = true;
+        bottom.key = t;
+
+        while (temp != bottom){
+            while (compare(t, temp) > 0){
+                temp = temp.right;
+            }
+            if(temp.down == bottom && compare(t, temp) == 0){
+                added = false; //No duplicates! the gaps we split on the way stay split
+                break;
+            }
+            if(temp.down == bottom || fullGap(temp)){
+                //temp keeps the first half of its gap, the new node the rest
+                temp.right = new Node<>(temp.key, temp.right, temp.down.right.right);
+                temp.key = temp.down.right.key;
+            }
+            temp = temp.down;
+        }
+        bottom.key = null;
+
+        if(head.right != tail){
+            head = new Node<>(null, tail, head);
+        }
+        if(!added){
+            return false;
+        }
+
+        size++;
+        modCount++;
+        return true;
+    }
+
+
+    /*
+    *   Remove o from our List, false if it was not there
+    *
+    *   Before going down into a gap of two nodes we borrow a node from the
+    *   gap after it, or before it if it is the last gap of its parent, or
+    *   merge the two if the neighbour only has two too. That way the bottom
+    *   node can always be unlinked, and if its key was the last of some
+    *   gaps, those get the key before it
+    *
+    *   Merges can leave the head with a single node below it, then that
+    *   level goes away, even if o was not there
+    * */
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean remove(Object o) {
+        T t = (T) Objects.requireNonNull(o);
+        boolean removed = unlink(t);
+        while (head.down != bottom && head.down.key == null){ //The level below the head only has its last node
+            head = head.down;
+        }
+        if(!removed){
+            return false;
+        }
+
+        size--;
+        modCount++;
+        return true;
+    }
+
+
+    //The top down pass of remove, the head always has at least two nodes below it
+    private boolean unlink(T t){
+        Node<T> parent = null;
+        Node<T> temp = head;
+        Node<T> previous = null;    //the node before temp inside the gap of parent
+        while (temp.down != bottom){
+            if(parent != null && thinGap(temp)){
+                temp = widen(temp, previous, parent);
+            }
+            parent = temp;
+            previous = null;
+            temp = temp.down;
+            while (compare(t, temp) > 0){
+                previous = temp;
+                temp = temp.right;
+            }
+        }
+
+        if(compare(t, temp) != 0){
+            return false;
+        }
+
+        //The first node of a gap has a down link pointing at it, so we
+        //take the key of the next one instead, which is never a first node
+        if(previous == null){
+            Node<T> next = temp.right;
+            temp.key = next.key;
+            temp.right = next.right;
+        }else{
+            previous.right = temp.right;
+            if(parent != null && compare(t, parent) == 0){
+                replaceKey(t, previous.key); //t was the last of some gaps
+            }
+        }
+        return true;
+    }
+
+
+    /*
+    *   Gives the gap of temp, which has two nodes, one more node
+    *   A merge makes a gap of 4, the two nodes of each side
+    *
+    *   previous is the node before temp in the gap of parent, we only use
+    *   it when temp is the last node of that gap
+    *
+    *   @return the node whose gap we go down into now
+    * */
+    private Node<T> widen(Node<T> temp, Node<T> previous, Node<T> parent){
+        if(!sameKey(temp, parent)){
+            Node<T> next = temp.right;
+            if(!thinGap(next)){ //borrow the first node of the next gap
+                temp.key = next.down.key;
+                next.down = next.down.right;
+            }else{ //merge with it, the gap gets the nodes of both
+                temp.key = next.key;
+                temp.right = next.right;
+            }
+            return temp;
+        }
+
+        if(!thinGap(previous)){ //borrow the last node of the previous gap
+            Node<T> before = previous.down;
+            while (!sameKey(before.right, previous)){
+                before = before.right;
+            }
+            previous.key = before.key;
+            temp.down = before.right;
+            return temp;
+        }
+        previous.key = temp.key; //merge with it
+        previous.right = temp.right;
+        return previous;
+    }
+
+
+    //Every node above the bottom with key t gets the key before instead
+    private void replaceKey(T t, T before){
+        Node<T> temp = head;
+        while (temp.down != bottom){
+            while (compare(t, temp) > 0){
+                temp = temp.right;
+            }
+            if(compare(t, temp) == 0){
+                temp.key = before;
+            }
+            temp = temp.down;
+        }
+    }
+
+
+    /*
+    *   The bottom node of the first key not smaller than t,
+    *   the last node of the bottom if there is none
+    * */
+    private Node<T> ceilingNode(T t){
+        Node<T> temp = head;
+        while (true){
+            while (compare(t, temp) > 0){
+                temp = temp.right;
+            }
+            if(temp.down == bottom){
+                return temp;
+            }
+            temp = temp.down;
+        }
+    }
+
+
+    /*
+    *   Greatest key smaller than t, or equal if inclusive, null if there is none
+    *   A null t is the end of the keys
+    *
+    *   Every node we step over on the way down has a key smaller than t,
+    *   the last one of them is the one we want
+    * */
+    private T lowerKey(T t, boolean inclusive){
+        Node<T> temp = head;
+        T found = null;
+        while (temp != bottom){
+            while (temp.key != null && (t == null || t.compareTo(temp.key) > 0)){
+                found = temp.key;
+                temp = temp.right;
+            }
+            if(inclusive && t != null && compare(t, temp) == 0){
+                return t;
+            }
+            temp = temp.down;
+        }
+        return found;
+    }
+
+
+    /*
+    *   Same as the NavigableSet methods, null if there is no such element
+    * */
+    public T ceiling(T e) {
+        return ceilingNode(Objects.requireNonNull(e)).key;
+    }
+
+    public T higher(T e) {
+        Node<T> node = ceilingNode(Objects.requireNonNull(e));
+        return node.key != null && e.compareTo(node.key) == 0 ? node.right.key : node.key;
+    }
+
+    public T floor(T e) {
+        return lowerKey(Objects.requireNonNull(e), true);
+    }
+
+    public T lower(T e) {
+        return lowerKey(Objects.requireNonNull(e), false);
+    }
+
+
+    //First node of the bottom level
+    private Node<T> firstNode(){
+        Node<T> temp = head;
+        while (temp.down != bottom){
+            temp = temp.down;
+        }
+        return temp;
+    }
+
+
+    /*
+    *   returns First element on the list
+    * */
+    @Override
+    public T first() {
+        T first = firstNode().key;
+        if(first == null){
+            throw new NoSuchElementException();
+        }
+        return first;
+    }
+
+
+    /*
+    *   returns last element on the list
+    * */
+    @Override
+    public T last() {
+        T last = lowerKey(null, false);
+        if(last == null){
+            throw new NoSuchElementException();
+        }
+        return last;
+    }
+
+
+    /*
+    *   Return the size of the list
+    * */
+    @Override
+    public int size() {
+        return size;
+    }
+
+
+    /*
+    *   Levels above the bottom, at most log base 2 of the size plus one
+    * */
+    public int height(){
+        int height = 0;
+        for(Node<T> temp = head; temp.down != bottom; temp = temp.down){
+            height++;
+        }
+        return height;
+    }
+
+
+    /*
+    *   Clear our SkipList
+    * */
+    @Override
+    public void clear() {
+        head = new Node<>(null, tail, bottom);
+        size = 0;
+        modCount++;
+    }
+
+
+    @Override
+    public Comparator<? super T> comparator() {
+        return null; //natural order
+    }
+
+
+    /*
+    *   Return our SkipList iterator
+    * */
+    @Override
+    public Iterator<T> iterator() {
+        return new DeterministicIterator(null, null);
+    }
+
+
+    /*
+    *   Node of a level, down is the first node of its gap on the
+    *   level below, a null key goes after every other key
+    * */
+    static final class Node<T extends Comparable<T>> {
+        T key;
+        Node<T> right;
+        Node<T> down;
+
+        Node(T key, Node<T> right, Node<T> down){
+            this.key = key;
+            this.right = right;
+            this.down = down;
+        }
+    }
+
+
+    /*
+    *   Iterator that walks the bottom level
+    *
+    *   A remove can move keys between nodes, so after it we find our place again
+    * */
+    private class DeterministicIterator implements Iterator<T> {
+
+        private final T hi;             //first key it doesn't return, null if there is none
+        private Node<T> nextNode;
+        private T lastReturned;
+        private int expectedModCount = modCount;
+
+        DeterministicIterator(T lo, T hi){
+            this.hi = hi;
+            nextNode = lo == null ? firstNode() : ceilingNode(lo);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return nextNode.key != null && (hi == null || nextNode.key.compareTo(hi) < 0);
+        }
+
+        @Override
+        public T next() {
+            if(modCount != expectedModCount){
+                throw new ConcurrentModificationException();
+            }
+            if(!hasNext()){
+                throw new NoSuchElementException();
+            }
+            lastReturned = nextNode.key;
+            nextNode = nextNode.right;
+            return lastReturned;
+        }
+
+        @Override
+        public void remove() {
+            if(lastReturned == null){
+                throw new IllegalStateException();
+            }
+            if(modCount != expectedModCount){
+                throw new ConcurrentModificationException();
+            }
+            DeterministicSkipListSet.this.remove(lastReturned);
+            nextNode = ceilingNode(lastReturned);
+            lastReturned = null;
+            expectedModCount = modCount;
+        }
+    }
+
+
+    /*
+    *   Views of a range of the set, like on a TreeSet their bounds have to be inside ours
+    * */
+    @Override
+    public SortedSet<T> subSet(T fromElement, T toElement) {
+        return new Range(null, null).subSet(fromElement, toElement);
+    }
+
+    @Override
+    public SortedSet<T> headSet(T toElement) {
+        return new Range(null, null).headSet(toElement);
+    }
+
+    @Override
+    public SortedSet<T> tailSet(T fromElement) {
+        return new Range(null, null).tailSet(fromElement);
+    }
+
+
+    /*
+    *   Elements from lo (inclusive) to hi (exclusive) of the set,
+    *   null if there is no bound on that side
+    *
+    *   Writes go to the set, size walks the range
+    * */
+    private final class Range extends AbstractSet<T> implements SortedSet<T> {
+
+        private final T lo, hi;
+
+
+        Range(T lo, T hi){
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+
+        private boolean inRange(T t){
+            return (lo == null || t.compareTo(lo) >= 0) && (hi == null || t.compareTo(hi) < 0);
+        }
+
+        private void checkInRange(T t){
+            Objects.requireNonNull(t);
+            if(lo != null && t.compareTo(lo) < 0 || hi != null && t.compareTo(hi) > 0){
+                throw new IllegalArgumentException("element out of range");
+            }
+        }
+
+
+        @Override
+        public int size() {
+            int size = 0;
+            for(Iterator<T> it = iterator(); it.hasNext(); it.next()){
+                size++;
+            }
+            return size;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return !iterator().hasNext();
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean contains(Object o) {
+            T t = (T) Objects.requireNonNull(o);
+            return inRange(t) && DeterministicSkipListSet.this.contains(t);
+        }
+
+        @Override
+        public boolean add(T t) {
+            if(!inRange(Objects.requireNonNull(t))){
+                throw new IllegalArgumentException("element out of range");
+            }
+            return DeterministicSkipListSet.this.add(t);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean remove(Object o) {
+            T t = (T) Objects.requireNonNull(o);
+            return inRange(t) && DeterministicSkipListSet.this.remove(t);
+        }
+
+
+        @Override
+        public T first() {
+            T first = lo == null ? firstNode().key : ceiling(lo);
+            if(first == null || !inRange(first)){
+                throw new NoSuchElementException();
+            }
+            return first;
+        }
+
+        @Override
+        public T last() {
+            T last = hi == null ? lowerKey(null, false) : lower(hi);
+            if(last == null || !inRange(last)){
+                throw new NoSuchElementException();
+            }
+            return last;
+        }
+
+
+        @Override
+        public SortedSet<T> subSet(T fromElement, T toElement) {
+            checkInRange(fromElement);
+            checkInRange(toElement);
+            if(fromElement.compareTo(toElement) > 0){
+                throw new IllegalArgumentException("fromElement > toElement");
+            }
+            return new Range(fromElement, toElement);
+        }
+
+        @Override
+        public SortedSet<T> headSet(T toElement) {
+            checkInRange(toElement);
+            return new Range(lo, toElement);
+        }
+
+        @Override
+        public SortedSet<T> tailSet(T fromElement) {
+            checkInRange(fromElement);
+            return new Range(fromElement, hi);
+        }
+
+
+        @Override
+        public Comparator<? super T> comparator() {
+            return null;
+        }
+
+        @Override
+        public Iterator<T> iterator() {
+            return new DeterministicIterator(lo, hi);
+        }
+    }
+}
@@ -0,0 +1,963 @@
+package skiplist;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+
+/*
+*   SkipListSet that survives a crash, kept in a directory as a checkpoint
+*   and a write-ahead log
+*
+*       checkpoint: every element in order, written all at once, so loading
+*                   it is one linear bulk build (see SkipListSet(Collection))
+*       log.N:      every add, remove, removeRange and clear made after it,
+*                   in frames of many records, each with its length and CRC32
+*
+*   Opening the directory loads the checkpoint and replays the logs after
+*   it. A frame that was only half written when the process died is the
+*   end of the last log, it is cut off there.
+*
+*   Group commit: changes are made on the list and appended to a buffer
+*   under the lock of the list, then whoever has to sync writes everything
+*   the buffer has as one frame and fsyncs once for all of it. Threads that
+*   were waiting for the same fsync just return. syncEvery is how many
+*   records can be waiting before a change syncs: with 1 every change is on
+*   disk when it returns, with more a crash can lose up to syncEvery - 1 of
+*   the latest changes, and sync() or close() write them right away.
+*   A change can be seen by readers before it is on disk
+*
+*   Every checkpointEvery records the change that reaches it starts a new
+*   checkpoint on a background thread and returns. The checkpoint reads a
+*   snapshot of the list (see SkipListSet.snapshot), so writers don't wait
+*   for it, starts a new log and drops the old ones. If it fails the old
+*   checkpoint and logs are still there, nothing is lost, and close()
+*   throws what it failed with
+*
+*   Element bytes come from a Codec, there are codecs for Long, Integer and String
+*
+* */
+public class DurableSkipListSet <T extends Comparable<T>> extends AbstractSet<T> implements SortedSet<T>, Closeable {
+
+
+    static final int DEFAULT_SYNC_EVERY = 1;
+    static final int DEFAULT_CHECKPOINT_EVERY = 1 << 20;
+
+    private static final String CHECKPOINT = "checkpoint";
+    private static final String LOG = "log.";
+    private static final int MAGIC = 0x534b4350;   //"SKCP"
+    private static final int VERSION = 1;
+    private static final int BATCH = 256;          //elements iterators read with every lock
+
+    //Log records, one byte and the elements they need
+    private static final byte ADD = 1;
+    private static final byte REMOVE = 2;
+    private static final byte CLEAR = 3;
+    private static final byte REMOVE_RANGE = 4;
+
+
+    /*
+    *   Writes and reads the elements of the set
+    * */
+    public interface Codec<T> {
+
+        void write(T t, DataOutput out) throws IOException;
+
+        T read(DataInput in) throws IOException;
+
+
+        static Codec<Long> longs(){
+            return new Codec<>() {
+                public void write(Long t, DataOutput out) throws IOException { out.writeLong(t); }
+                public Long read(DataInput in) throws IOException { return in.readLong(); }
+            };
+        }
+
+        static Codec<Integer> ints(){
+            return new Codec<>() {
+                public void write(Integer t, DataOutput out) throws IOException { out.writeInt(t); }
+                public Integer read(DataInput in) throws IOException { return in.readInt(); }
+            };
+        }
+
+        //Modified UTF-8, up to 65535 bytes each
+        static Codec<String> strings(){
+            return new Codec<>() {
+                public void write(String t, DataOutput out) throws IOException { out.writeUTF(t); }
+                public String read(DataInput in) throws IOException { return in.readUTF(); }
+            };
+        }
+    }
+
+
+    //Buffer of the records nobody wrote yet, it can forget the last one
+    private static final class Records extends ByteArrayOutputStream {
+        void truncate(int size){
+            count = size;
+        }
+    }
+
+
+    private final Path directory;
+    private final Codec<T> codec;
+    private final int syncEvery;            //records that can wait for a sync, 1 syncs every change
+    private final int checkpointEvery;      //records between checkpoints, 0 for only when checkpoint() is called
+    private final SkipListSet<T> set;       //its lock guards everything up to sinceCheckpoint
+
+    private final Records pending = new Records();
+    private final DataOutputStream pendingOut = new DataOutputStream(pending);
+    private long written;                   //records appended so far
+    private long sinceCheckpoint;           //records appended since the log was started
+    private boolean closed;
+
+    private final Object commitLock = new Object();     //guards the log
+    private FileChannel log;
+    private long generation;                //number of the log we write to
+    private volatile long durable;          //records that are on disk
+    private volatile IOException failure;   //once the log fails nothing else is written
+
+    private final Object checkpointLock = new Object(); //one checkpoint at a time, from start to end
+    private final AtomicBoolean checkpointing = new AtomicBoolean();   //a background checkpoint is running
+    private volatile Thread checkpointer;                   //the last background checkpoint, close waits for it
+    private volatile Exception checkpointFailure;           //what the last one failed with, close throws it
+
+
+    /*
+    *   Opens the set kept in directory, or creates it, syncing every change
+    *
+    *   @param  Path directory
+    *   @param  Codec<T> codec
+    * */
+    public DurableSkipListSet(Path directory, Codec<T> codec) throws IOException {
+        this(directory, codec, DEFAULT_SYNC_EVERY, DEFAULT_CHECKPOINT_EVERY);
+    }
+
+
+    /*
+    *   Opens the set kept in directory, or creates it
+    *
+    *   @param  Path directory
+    *   @param  Codec<T> codec
+    *   @param  int syncEvery, records that can wait for a sync
+    *   @param  int checkpointEvery, records between checkpoints, 0 for never on its own
+    * */
+    public DurableSkipListSet(Path directory, Codec<T> codec, int syncEvery, int checkpointEvery) throws IOException {
+        if(syncEvery < 1){
+            throw new IllegalArgumentException("syncEvery must be at least 1: " + syncEvery);
+        }
+        if(checkpointEvery < 0){
+            throw new IllegalArgumentException("checkpointEvery can't be negative: " + checkpointEvery);
+        }
+        this.directory = Files.createDirectories(directory);
+        this.codec = Objects.requireNonNull(codec);
+        this.syncEvery = syncEvery;
+        this.checkpointEvery = checkpointEvery;
+
+        List<T> elements = new ArrayList<>();
+        long first = readCheckpoint(elements);  //first log after it
+        set = new SkipListSet<>(elements);
+
+        List<Long> logs = logGenerations();
+        long last = first - 1;
+        for(int i = 0; i < logs.size(); i++){
+            long log = logs.get(i);
+            if(log < first){
+                Files.delete(logPath(log)); //a checkpoint was done with it
+            }else{
+                replay(log, i == logs.size() - 1);
+                last = log;
+            }
+        }
+
+        generation = last + 1;
+        log = openLog(generation);
+        syncDirectory(); //so the new log is still there after a crash
+    }
+
+
+    private Path logPath(long generation){
+        return directory.resolve(LOG + generation);
+    }
+
+    //Numbers of the logs in the directory, in order
+    private List<Long> logGenerations() throws IOException {
+        List<Long> logs = new ArrayList<>();
+        try(DirectoryStream<Path> files = Files.newDirectoryStream(directory, LOG + "*")){
+            for(Path file : files){
+                try{
+                    logs.add(Long.parseLong(file.getFileName().toString().substring(LOG.length())));
+                }catch (NumberFormatException e){
+                    //not one of ours
+                }
+            }
+        }
+        Collections.sort(logs);
+        return logs;
+    }
+
+    private FileChannel openLog(long generation) throws IOException {
+        FileChannel channel = FileChannel.open(logPath(generation), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        channel.position(channel.size());
+        return channel;
+    }
+
+    //Makes the files created, renamed or deleted in the directory durable
+    private void syncDirectory(){
+        try(FileChannel dir = FileChannel.open(directory, StandardOpenOption.READ)){
+            dir.force(true);
+        }catch (IOException e){
+            //not every platform can sync a directory
+        }
+    }
+
+
+    /*
+    *   Reads the checkpoint into elements, they are in order
+    *
+    *   @return     the first log made after it, 1 if there is no checkpoint
+    * */
+    private long readCheckpoint(List<T> elements) throws IOException {
+        Path file = directory.resolve(CHECKPOINT);
+        if(!Files.exists(file)){
+            return 1;
+        }
+
+        CheckedInputStream checked = new CheckedInputStream(new BufferedInputStream(Files.newInputStream(file)), new CRC32());
+        try(DataInputStream in = new DataInputStream(checked)){
+            if(in.readInt() != MAGIC || in.readInt() != VERSION){
+                throw new IOException("not a checkpoint: " + file);
+            }
+            long first = in.readLong();
+            long count = in.readLong();
+            for(long i = 0; i < count; i++){
+                elements.add(codec.read(in));
+            }
+            int expected = (int) checked.getChecksum().getValue();
+            if(in.readInt() != expected){
+                throw new IOException("checkpoint is corrupt: " + file);
+            }
+            return first;
+        }
+    }
+
+
+    /*
+    *   Applies the records of a log to the list
+    *
+    *   Only the last log can end in a frame that is cut short or doesn't
+    *   match its CRC, the process died writing it, so we cut it off
+    * */
+    private void replay(long generation, boolean last) throws IOException {
+        Path file = logPath(generation);
+        long good = 0;  //where the frames we could read end
+
+        try(DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))){
+            byte[] header = new byte[8];
+            while (true){
+                int read = in.readNBytes(header, 0, header.length);
+                if(read == 0){
+                    break;
+                }
+                int length = ByteBuffer.wrap(header).getInt();
+                int crc = ByteBuffer.wrap(header).getInt(4);
+                byte[] frame = read == header.length && length >= 0 ? in.readNBytes(length) : null;
+                if(frame == null || frame.length != length || crc != crcOf(frame)){
+                    if(!last){
+                        throw new IOException("log is corrupt: " + file);
+                    }
+                    break;
+                }
+                apply(frame);
+                good += header.length + length;
+            }
+        }
+
+        if(good < Files.size(file)){
+            try(FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)){
+                channel.truncate(good);
+                channel.force(true);
+            }
+        }
+    }
+
+    private static int crcOf(byte[] frame){
+        CRC32 crc = new CRC32();
+        crc.update(frame);
+        return (int) crc.getValue();
+    }
+
+    //Every record of a frame, again on the list
+    private void apply(byte[] frame) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(frame));
+        while (in.available() > 0){
+            byte op = in.readByte();
+            switch (op){
+                case ADD:
+                    set.add(codec.read(in));
+                    break;
+                case REMOVE:
+                    set.remove(codec.read(in));
+                    break;
+                case CLEAR:
+                    set.clear();
+                    break;
+                case REMOVE_RANGE:
+                    T from = codec.read(in);
+                    set.removeRange(from, codec.read(in));
+                    break;
+                default:
+                    throw new IOException("unknown log record: " + op);
+            }
+        }
+    }
+
+
+    /*
+    *   Appends a record to the buffer, only with the lock of the list
+    *   If the codec fails the record is not there
+    *
+    *   @return     the number of the record
+    * */
+    private long append(byte op, T a, T b){
+        int mark = pending.size();
+        try{
+            pendingOut.writeByte(op);
+            if(a != null){
+                codec.write(a, pendingOut);
+            }
+            if(b != null){
+                codec.write(b, pendingOut);
+            }
+        }catch (IOException | RuntimeException e){
+            pending.truncate(mark);
+            throw e instanceof IOException ? new UncheckedIOException((IOException) e) : (RuntimeException) e;
+        }
+        sinceCheckpoint++;
+        return ++written;
+    }
+
+    //The last record appended goes away, the change didn't happen after all
+    private void dropLast(int mark){
+        pending.truncate(mark);
+        sinceCheckpoint--;
+        written--;
+    }
+
+    //Only with the lock of the list
+    private void checkWritable(){
+        if(closed){
+            throw new IllegalStateException("closed");
+        }
+        if(failure != null){
+            throw new UncheckedIOException("the log failed before", failure);
+        }
+    }
+
+
+    /*
+    *   After a change is appended: sync if too many records are waiting,
+    *   and checkpoint if the log is long enough
+    * */
+    private void committed(long record){
+        if(record - durable >= syncEvery){
+            try{
+                flush(record);
+            }catch (IOException e){
+                throw new UncheckedIOException(e);
+            }
+        }
+        if(checkpointEvery > 0 && sinceCheckpoint >= checkpointEvery && checkpointing.compareAndSet(false, true)){
+            Thread thread = new Thread(this::checkpointInBackground, "DurableSkipListSet checkpoint");
+            thread.setDaemon(true);
+            checkpointer = thread;
+            thread.start();
+        }
+    }
+
+    private void checkpointInBackground(){
+        try{
+            checkpoint();
+            checkpointFailure = null;
+        }catch (IllegalStateException e){
+            //closed before it could start, the logs have everything
+        }catch (IOException | RuntimeException e){
+            checkpointFailure = e;
+        }finally{
+            checkpointing.set(false);
+        }
+    }
+
+
+    /*
+    *   Makes every record up to record durable
+    *
+    *   Whoever gets the commit lock writes everything the buffer has,
+    *   so the ones waiting behind it usually find their record done
+    * */
+    private void flush(long record) throws IOException {
+        synchronized (commitLock){
+            if(durable >= record){
+                return; //somebody else's sync took it
+            }
+            byte[] frame;
+            long upTo;
+            synchronized (set){
+                frame = pending.toByteArray();
+                pending.reset();
+                upTo = written;
+            }
+            write(log, frame);
+            durable = upTo;
+        }
+    }
+
+    //One frame and the fsync, only with the commit lock
+    private void write(FileChannel channel, byte[] frame) throws IOException {
+        if(failure != null){
+            throw failure;
+        }
+        try{
+            if(frame.length > 0){
+                ByteBuffer header = ByteBuffer.allocate(8).putInt(frame.length).putInt(crcOf(frame));
+                header.flip();
+                ByteBuffer[] buffers = {header, ByteBuffer.wrap(frame)};
+                while (buffers[1].hasRemaining()){
+                    channel.write(buffers);
+                }
+            }
+            channel.force(false);
+        }catch (IOException e){
+            failure = e; //the log may end in half a frame, nothing can go after it
+            throw e;
+        }
+    }
+
+
+    /*
+    *   Writes every change made so far to disk
+    * */
+    public void sync() throws IOException {
+        long upTo;
+        synchronized (set){
+            upTo = written;
+        }
+        flush(upTo);
+    }
+
+
+    /*
+    *   Writes a new checkpoint and drops the logs before it
+    *
+    *   With the commit lock we take a snapshot of the list and move to a
+    *   new log, so the snapshot has every record of the old logs. Then the
+    *   snapshot is written while the list keeps changing, to a temporary
+    *   file that takes the place of the checkpoint once it is on disk
+    *
+    *   All of it runs with the checkpoint lock, whether it was called or
+    *   made by a change, so two checkpoints never share the temporary file
+    *   and an older one can't take the place of a newer one
+    * */
+    public void checkpoint() throws IOException {
+        synchronized (checkpointLock){
+            SkipListSnapshot<T> taken;
+            long first;
+            synchronized (commitLock){
+                byte[] frame;
+                long upTo;
+                synchronized (set){
+                    if(closed){
+                        throw new IllegalStateException("closed");
+                    }
+                    taken = set.snapshot();
+                    frame = pending.toByteArray();
+                    pending.reset();
+                    upTo = written;
+                    sinceCheckpoint = 0;
+                }
+                try{
+                    write(log, frame);
+                    durable = upTo;
+                    log.close();
+                    first = ++generation;
+                    log = openLog(generation);
+                    syncDirectory();
+                }catch (IOException e){
+                    failure = e;
+                    taken.close();
+                    throw e;
+                }
+            }
+
+            try{
+                writeCheckpoint(taken, first);
+            }finally{
+                taken.close();
+            }
+            for(long old : logGenerations()){
+                if(old < first){
+                    Files.deleteIfExists(logPath(old));
+                }
+            }
+        }
+    }
+
+
+    private void writeCheckpoint(SkipListSnapshot<T> taken, long first) throws IOException {
+        Path temporary = directory.resolve(CHECKPOINT + ".tmp");
+        try(FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)){
+            CheckedOutputStream checked = new CheckedOutputStream(
+                    new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16), new CRC32());
+            DataOutputStream out = new DataOutputStream(checked);
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(first);
+            out.writeLong(taken.size());
+            for(T t : taken){
+                codec.write(t, out);
+            }
+            out.writeInt((int) checked.getChecksum().getValue());
+            out.flush();
+            channel.force(true);
+        }
+
+        Files.move(temporary, directory.resolve(CHECKPOINT), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        syncDirectory(); //the rename too
+    }
+
+
+    /*
+    *   Waits for a background checkpoint, writes every change and closes
+    *   the log, the set can't change after this
+    * */
+    @Override
+    public void close() throws IOException {
+        Thread thread = checkpointer;
+        if(thread != null){
+            try{
+                thread.join();
+            }catch (InterruptedException e){
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("interrupted waiting for a checkpoint");
+            }
+        }
+
+        synchronized (commitLock){
+            byte[] frame;
+            long upTo;
+            synchronized (set){
+                if(closed){
+                    return;
+                }
+                closed = true;
+                frame = pending.toByteArray();
+                pending.reset();
+                upTo = written;
+            }
+            try{
+                write(log, frame);
+                durable = upTo;
+            }finally{
+                log.close();
+            }
+        }
+
+        Exception failed = checkpointFailure;
+        if(failed != null){ //everything is in the logs, the next open reads them
+            throw failed instanceof IOException ? (IOException) failed : new IOException("checkpoint failed", failed);
+        }
+    }
+
+
+    /*
+    *   We add element t to our List, and to the log
+    * */
+    @Override
+    public boolean add(T t) {
+        Objects.requireNonNull(t);
+        long record;
+        synchronized (set){
+            checkWritable();
+            if(!set.add(t)){
+                return false;
+            }
+            try{
+                record = append(ADD, t, null);
+            }catch (RuntimeException e){
+                set.remove(t); //it can't be logged, so it can't be there
+                throw e;
+            }
+        }
+        committed(record);
+        return true;
+    }
+
+
+    /*
+    *   Every new element goes to the log, and only the last one waits for a sync
+    * */
+    @Override
+    public boolean addAll(Collection<? extends T> c) {
+        long record = 0;
+        synchronized (set){
+            checkWritable();
+            for(T t : c){
+                if(set.add(Objects.requireNonNull(t))){
+                    try{
+                        record = append(ADD, t, null);
+                    }catch (RuntimeException e){
+                        set.remove(t);
+                        throw e;
+                    }
+                }
+            }
+        }
+        if(record == 0){
+            return false;
+        }
+        committed(record);
+        return true;
+    }
+
+
+    /*
+    *   Remove an Object o from our List, and from the log
+    * */
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean remove(Object o) {
+        T t = (T) Objects.requireNonNull(o);
+        long record;
+        synchronized (set){
+            checkWritable();
+            if(!set.remove(t)){
+                return false;
+            }
+            try{
+                record = append(REMOVE, t, null);
+            }catch (RuntimeException e){
+                set.add(t);
+                throw e;
+            }
+        }
+        committed(record);
+        return true;
+    }
+
+
+    /*
+    *   Removes the elements from fromElement, inclusive, to toElement,
+    *   exclusive, with one record, see SkipListSet.removeRange
+    * */
+    public int removeRange(T fromElement, T toElement) {
+        Objects.requireNonNull(fromElement);
+        Objects.requireNonNull(toElement);
+        long record;
+        int removed;
+        synchronized (set){
+            checkWritable();
+            int mark = pending.size();
+            record = append(REMOVE_RANGE, fromElement, toElement); //first, we can't put them back
+            removed = set.removeRange(fromElement, toElement);
+            if(removed == 0){
+                dropLast(mark);
+                return 0;
+            }
+        }
+        committed(record);
+        return removed;
+    }
+
+
+    @Override
+    public void clear() {
+        long record;
+        synchronized (set){
+            checkWritable();
+            if(set.isEmpty()){
+                return;
+            }
+            record = append(CLEAR, null, null);
+            set.clear();
+        }
+        committed(record);
+    }
+
+
+    @Override
+    public boolean contains(Object o) {
+        synchronized (set){
+            return set.contains(o);
+        }
+    }
+
+    @Override
+    public int size() {
+        synchronized (set){
+            return set.size();
+        }
+    }
+
+    @Override
+    public boolean isEmpty() {
+        synchronized (set){
+            return set.isEmpty();
+        }
+    }
+
+    @Override
+    public T first() {
+        synchronized (set){
+            return set.first();
+        }
+    }
+
+    @Override
+    public T last() {
+        synchronized (set){
+            return set.last();
+        }
+    }
+
+
+    @Override
+    public Comparator<? super T> comparator() {
+        return null; //natural order
+    }
+
+
+    /*
+    *   Weakly consistent iterator, it reads BATCH elements at a time
+    *   with the lock of the list, and remove goes to the log
+    * */
+    @Override
+    public Iterator<T> iterator() {
+        return new DurableIterator(null, null);
+    }
+
+
+    //Elements of the list from lo, inclusive, to hi, exclusive, only with the lock of the list
+    private NavigableSet<T> range(T lo, T hi){
+        if(lo == null){
+            return hi == null ? set : set.headSet(hi, false);
+        }
+        return hi == null ? set.tailSet(lo, true) : set.subSet(lo, true, hi, false);
+    }
+
+
+    private final class DurableIterator implements Iterator<T> {
+
+        private final T lo, hi;         //bounds of the iterator, null if there is none
+        private final Object[] buffer = new Object[BATCH];
+        private int count, next;        //buffer has count elements, next is the one to return
+        private T from;                 //last element of the last batch, null before the first one
+        private boolean done;
+        private T lastReturned;
+
+
+        DurableIterator(T lo, T hi){
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+
+        private void fill(){
+            count = 0;
+            next = 0;
+            synchronized (set){
+                Iterator<T> it = from == null ? range(lo, hi).iterator()
+                        : hi == null ? set.tailSet(from, false).iterator() : set.subSet(from, false, hi, false).iterator();
+                while (count < BATCH && it.hasNext()){
+                    buffer[count++] = it.next();
+                }
+                done = !it.hasNext();
+            }
+            if(count > 0){
+                from = elementAt(count - 1);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private T elementAt(int index){
+            return (T) buffer[index];
+        }
+
+        @Override
+        public boolean hasNext() {
+            if(next == count && !done){
+                fill();
+            }
+            return next < count;
+        }
+
+        @Override
+        public T next() {
+            if(!hasNext()){
+                throw new NoSuchElementException();
+            }
+            lastReturned = elementAt(next);
+            buffer[next++] = null;
+            return lastReturned;
+        }
+
+        @Override
+        public void remove() {
+            if(lastReturned == null){
+                throw new IllegalStateException();
+            }
+            DurableSkipListSet.this.remove(lastReturned);
+            lastReturned = null;
+        }
+    }
+
+
+    /*
+    *   Views of a range of the set, like on a TreeSet their bounds have to be inside ours
+    *
+    *   They read like the set, with its lock, and their changes go to the log
+    * */
+    @Override
+    public SortedSet<T> subSet(T fromElement, T toElement) {
+        return new Range(null, null).subSet(fromElement, toElement);
+    }
+
+    @Override
+    public SortedSet<T> headSet(T toElement) {
+        return new Range(null, null).headSet(toElement);
+    }
+
+    @Override
+    public SortedSet<T> tailSet(T fromElement) {
+        return new Range(null, null).tailSet(fromElement);
+    }
+
+
+    /*
+    *   Elements from lo, inclusive, to hi, exclusive, a null bound means there is none
+    * */
+    private final class Range extends AbstractSet<T> implements SortedSet<T> {
+
+        private final T lo, hi;
+
+
+        Range(T lo, T hi){
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+
+        private boolean inRange(T t){
+            return (lo == null || t.compareTo(lo) >= 0) && (hi == null || t.compareTo(hi) < 0);
+        }
+
+        private void checkInRange(T t){
+            Objects.requireNonNull(t);
+            if(lo != null && t.compareTo(lo) < 0 || hi != null && t.compareTo(hi) > 0){
+                throw new IllegalArgumentException("element out of range");
+            }
+        }
+
+
+        @Override
+        public int size() {
+            synchronized (set){
+                return range(lo, hi).size();
+            }
+        }
+
+        @Override
+        public boolean isEmpty() {
+            synchronized (set){
+                return range(lo, hi).isEmpty();
+            }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean contains(Object o) {
+            T t = (T) Objects.requireNonNull(o);
+            return inRange(t) && DurableSkipListSet.this.contains(t);
+        }
+
+        @Override
+        public boolean add(T t) {
+            if(!inRange(Objects.requireNonNull(t))){
+                throw new IllegalArgumentException("element out of range");
+            }
+            return DurableSkipListSet.this.add(t);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean remove(Object o) {
+            T t = (T) Objects.requireNonNull(o);
+            return inRange(t) && DurableSkipListSet.this.remove(t);
+        }
+
+        //With both bounds it is one record, otherwise a remove for each element
+        @Override
+        public void clear() {
+            if(lo != null && hi != null){
+                removeRange(lo, hi);
+            }else{
+                super.clear();
+            }
+        }
+
+
+        @Override
+        public T first() {
+            synchronized (set){
+                return range(lo, hi).first();
+            }
+        }
+
+        @Override
+        public T last() {
+            synchronized (set){
+                return range(lo, hi).last();
+            }
+        }
+
+
+        @Override
+        public SortedSet<T> subSet(T fromElement, T toElement) {
+            checkInRange(fromElement);
+            checkInRange(toElement);
+            if(fromElement.compareTo(toElement) > 0){
+                throw new IllegalArgumentException("fromElement > toElement");
+            }
+            return new Range(fromElement, toElement);
+        }
+
+        @Override
+        public SortedSet<T> headSet(T toElement) {
+            checkInRange(toElement);
+            return new Range(lo, toElement);
+        }
+
+        @Override
+        public SortedSet<T> tailSet(T fromElement) {
+            checkInRange(fromElement);
+            return new Range(fromElement, hi);
+        }
+
+
+        @Override
+        public Comparator<? super T> comparator() {
+            return null;
+        }
+
+        @Override
+        public Iterator<T> iterator() {
+            return new DurableIterator(lo, hi);
+        }
+    }
+}
@@ -0,0 +1,309 @@
+package skiplist;
+
+import java.util.*;
+
+
+/*
+*   Read only copy of a SkipListSet, see SkipListSet.freeze()
+*
+*   Instead of towers of linked items it keeps the elements in two arrays:
+*       sorted:     the elements in order, for iteration, first, last and ranges
+*       eytzinger:  the same elements laid out like a binary heap, position k
+*                   has its children at 2k and 2k + 1, with ranks[k] being
+*                   the position of that element on sorted
+*
+*   A search goes down the eytzinger array from position 1, moving to
+*   2k or 2k + 1 without an if, so the first levels of every search are
+*   always the same few cache lines at the start of the array.
+*   The elements themselves are still objects, only the references are packed
+*
+*   Range views (subSet, headSet, tailSet) share the arrays of the set they come from
+*
+* */
+public final class FrozenSortedSet<T extends Comparable<T>> extends AbstractSet<T> implements SortedSet<T> {
+
+
+    private final Object[] sorted;          //every element, shared by all the views
+    private final Object[] eytzinger;       //position 0 is not used
+    private final int[] ranks;              //position on sorted of every element of eytzinger
+    private final int from, to;             //this view is sorted[from] up to sorted[to - 1]
+    private final T lo, hi;                 //bounds of the view, null if it has none
+
+
+    /*
+    *   Freezes n sorted, distinct elements
+    * */
+    FrozenSortedSet(Object[] sorted){
+        int n = sorted.length;
+        this.sorted = sorted;
+        this.eytzinger = new Object[n + 1];
+        this.ranks = new int[n + 1];
+        this.from = 0;
+        this.to = n;
+        this.lo = null;
+        this.hi = null;
+        layOut(0, 1);
+    }
+
+    //A range view of the same arrays
+    private FrozenSortedSet(FrozenSortedSet<T> set, int from, int to, T lo, T hi){
+        this.sorted = set.sorted;
+        this.eytzinger = set.eytzinger;
+        this.ranks = set.ranks;
+        this.from = from;
+        this.to = Math.max(from, to);
+        this.lo = lo;
+        this.hi = hi;
+    }
+
+
+    /*
+    *   Fills the subtree at position k of eytzinger in order, starting
+    *   with sorted[i], and returns the position of the next one on sorted
+    * */
+    private int layOut(int i, int k){
+        if(k < eytzinger.length){
+            i = layOut(i, 2 * k);
+            eytzinger[k] = sorted[i];
+            ranks[k] = i;
+            i = layOut(i + 1, 2 * k + 1);
+        }
+        return i;
+    }
+
+
+    /*
+    *   Position on sorted of the first element greater or equal than o,
+    *   or greater than o if strict, sorted.length if there is none
+    *
+    *   Every step goes left or right by adding the result of the comparison,
+    *   at the end the trailing ones of k are the right turns we took after
+    *   the last left turn, and that left turn is our answer
+    * */
+    @SuppressWarnings("unchecked")
+    private int search(T o, boolean strict){
+        int limit = strict ? 0 : -1;  //we go right while the element is at most limit compared to o
+        int n = eytzinger.length;
+        int k = 1;
+        while (k < n){
+            int c = Integer.signum(((T) eytzinger[k]).compareTo(o));
+            k = 2 * k + ((limit - c) >>> 31 ^ 1); //1 when c <= limit
+        }
+        k >>= Integer.numberOfTrailingZeros(~k) + 1;
+        return k == 0 ? sorted.length : ranks[k];
+    }
+
+    //Moves a position from search inside this view
+    private int clamp(int index){
+        return Math.min(Math.max(index, from), to);
+    }
+
+
+    @SuppressWarnings("unchecked")
+    private T at(int index){
+        return (T) sorted[index];
+    }
+
+
+    @Override
+    public int size() {
+        return to - from;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return to == from;
+    }
+
+
+    /*
+    *   Returns true if the set has o
+    * */
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean contains(Object o) {
+        T t = (T) Objects.requireNonNull(o);
+        int index = search(t, false);
+        return index >= from && index < to && at(index).compareTo(t) == 0;
+    }
+
+
+    @Override
+    public T first() {
+        if(isEmpty()){
+            throw new NoSuchElementException();
+        }
+        return at(from);
+    }
+
+    @Override
+    public T last() {
+        if(isEmpty()){
+            throw new NoSuchElementException();
+        }
+        return at(to - 1);
+    }
+
+
+    /*
+    *   Same as the NavigableSet methods, null if there is no such element
+    * */
+    public T ceiling(T e) {
+        int index = clamp(search(e, false));
+        return index < to ? at(index) : null;
+    }
+
+    public T higher(T e) {
+        int index = clamp(search(e, true));
+        return index < to ? at(index) : null;
+    }
+
+    public T floor(T e) {
+        int index = clamp(search(e, true)) - 1;
+        return index >= from ? at(index) : null;
+    }
+
+    public T lower(T e) {
+        int index = clamp(search(e, false)) - 1;
+        return index >= from ? at(index) : null;
+    }
+
+
+    /*
+    *   Element at position index of this set, the smallest is at 0
+    * */
+    public T get(int index){
+        if(index < 0 || index >= size()){
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+        }
+        return at(from + index);
+    }
+
+
+    /*
+    *   Views, like on a TreeSet their bounds have to be inside ours
+    * */
+    @Override
+    public SortedSet<T> subSet(T fromElement, T toElement) {
+        checkInRange(fromElement);
+        checkInRange(toElement);
+        if(fromElement.compareTo(toElement) > 0){
+            throw new IllegalArgumentException("fromElement > toElement");
+        }
+        return new FrozenSortedSet<>(this, clamp(search(fromElement, false)), clamp(search(toElement, false)),
+                fromElement, toElement);
+    }
+
+    @Override
+    public SortedSet<T> headSet(T toElement) {
+        checkInRange(toElement);
+        return new FrozenSortedSet<>(this, from, clamp(search(toElement, false)), lo, toElement);
+    }
+
+    @Override
+    public SortedSet<T> tailSet(T fromElement) {
+        checkInRange(fromElement);
+        return new FrozenSortedSet<>(this, clamp(search(fromElement, false)), to, fromElement, hi);
+    }
+
+    private void checkInRange(T t){
+        Objects.requireNonNull(t);
+        if(lo != null && t.compareTo(lo) < 0 || hi != null && t.compareTo(hi) > 0){
+            throw new IllegalArgumentException("element out of range");
+        }
+    }
+
+
+    @Override
+    public Comparator<? super T> comparator() {
+        return null; //natural order
+    }
+
+
+    @Override
+    public Iterator<T> iterator() {
+        return new Iterator<T>() {
+            int next = from;
+
+            @Override
+            public boolean hasNext() {
+                return next < to;
+            }
+
+            @Override
+            public T next() {
+                if(next >= to){
+                    throw new NoSuchElementException();
+                }
+                return at(next++);
+            }
+        };
+    }
+
+    public Iterator<T> descendingIterator() {
+        return new Iterator<T>() {
+            int next = to - 1;
+
+            @Override
+            public boolean hasNext() {
+                return next >= from;
+            }
+
+            @Override
+            public T next() {
+                if(next < from){
+                    throw new NoSuchElementException();
+                }
+                return at(next--);
+            }
+        };
+    }
+
+    @Override
+    public Spliterator<T> spliterator() {
+        return Spliterators.spliterator(sorted, from, to, Spliterator.ORDERED | Spliterator.SORTED
+                | Spliterator.DISTINCT | Spliterator.NONNULL | Spliterator.IMMUTABLE);
+    }
+
+    @Override
+    public Object[] toArray() {
+        return Arrays.copyOfRange(sorted, from, to);
+    }
+
+
+    //It is read only
+    @Override
+    public boolean add(T t) {
+        throw new UnsupportedOperationException("frozen set");
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        throw new UnsupportedOperationException("frozen set");
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends T> c) {
+        throw new UnsupportedOperationException("frozen set");
+    }
+
+    @Override
+    public boolean removeAll(Collection<?> c) {
+        throw new UnsupportedOperationException("frozen set");
+    }
+
+    @Override
+    public boolean retainAll(Collection<?> c) {
+        throw new UnsupportedOperationException("frozen set");
+    }
+
+    @Override
+    public boolean removeIf(java.util.function.Predicate<? super T> filter) {
+        throw new UnsupportedOperationException("frozen set");
+    }
+
+    @Override
+    public void clear() {
+        throw new UnsupportedOperationException("frozen set");
+    }
+}
@@ -0,0 +1,62 @@
+package skiplist;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+
+
+/*
+*   Heights with a geometric distribution, see LevelGenerator
+*
+*   When the promotion is 1/2, 1/4, 1/8... we don't flip a coin per level,
+*   a random long already has them: every bitsPerLevel trailing zero bits
+*   are one more level. Any other promotion p takes one random double u,
+*   and the height is 1 + floor(log(u) / log(p)), so it is still one
+*   random number per element
+*
+* */
+final class GeometricLevelGenerator implements LevelGenerator {
+
+    private final double promotion;
+    private final int bitsPerLevel;         //0 when promotion is not a power of 1/2
+    private final double logPromotion;
+    private final SplittableRandom random;  //null means ThreadLocalRandom
+
+
+    GeometricLevelGenerator(double promotion, SplittableRandom random){
+        if(!(promotion > 0 && promotion < 1)){
+            throw new IllegalArgumentException("promotion must be between 0 and 1: " + promotion);
+        }
+        this.promotion = promotion;
+        this.random = random;
+        this.logPromotion = Math.log(promotion);
+
+        int bits = -Math.getExponent(promotion);
+        this.bitsPerLevel = bits < Long.SIZE && promotion == Math.scalb(1.0, -bits) ? bits : 0;
+    }
+
+
+    @Override
+    public int nextHeight(int maxHeight) {
+        int height;
+        if(bitsPerLevel != 0){
+            long bits = random == null ? ThreadLocalRandom.current().nextLong() : random.nextLong();
+            height = Long.numberOfTrailingZeros(bits) / bitsPerLevel + 1;
+        }else{
+            double u = 1.0 - (random == null ? ThreadLocalRandom.current().nextDouble() : random.nextDouble()); //never 0
+            height = (int) (Math.log(u) / logPromotion) + 1;
+        }
+        return Math.min(height, maxHeight);
+    }
+
+
+    @Override
+    public double promotion() {
+        return promotion;
+    }
+
+
+    @Override
+    public String toString() {
+        return "GeometricLevelGenerator[promotion=" + promotion + (random == null ? "" : ", seeded") + "]";
+    }
+}
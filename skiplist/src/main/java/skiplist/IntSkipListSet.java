@@ -0,0 +1,335 @@
+package skiplist;
+
+import java.util.*;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+
+/*
+*   This Object represent a SkipList set of int keys
+*
+*   It uses the same search, add and remove as SkipListSet, but every
+*   key is kept inside its item instead of in a Integer, and keys are
+*   compared with < and == instead of compareTo
+*
+*   It is still a Set<Integer>, the boxed methods simply unbox and go to
+*   the int ones
+*
+* */
+public class IntSkipListSet extends AbstractSet<Integer> {
+
+
+    static final int MAX_HEIGHT = 32;  //No tower can be taller than this
+
+    private final LevelGenerator levelGenerator = LevelGenerator.geometric();    //Heights of new elements
+
+    private int size = 0;           //keeps track of how many elements are on the SkipList
+    private int levels = 1;         //How many levels of the heads are in use
+    private int modCount = 0;       //Counts every change of structure, so iterators can notice them
+
+    private final IntItem heads = new IntItem(0, MAX_HEIGHT);      //This is always the starting point
+    private final IntItem[] update = new IntItem[MAX_HEIGHT];      //Reused by add and remove so they don't allocate
+
+
+    /*
+    *   Constructor that returns an empty SkipList
+    *
+    * */
+    public IntSkipListSet(){
+    }
+
+
+    /*
+    *   Constructor that returns a SkipList with the given keys
+    *   @param: int... keys
+    *
+    * */
+    public IntSkipListSet(int... keys){
+        for(int key : keys){
+            add(key);
+        }
+    }
+
+
+    /*
+    *   Height of a new element, each level has 50% chance of being added,
+    *   up to MAX_HEIGHT, the same as SkipListSet with its default generator
+    *
+    *   @return     int height
+    *
+    * */
+    private int setHeight(){
+        return levelGenerator.nextHeight(MAX_HEIGHT);
+    }
+
+
+    /*
+    *   Search for key from the top of the heads, saving the
+    *   predecessor of key on every level in update
+    *
+    *   @return     the predecessor of key on the bottom level
+    *
+    * */
+    private IntItem findPredecessors(int key){
+        IntItem temp = heads;
+
+        for(int level = levels - 1; level >= 0; level--){
+            while (temp.right[level] != null && temp.right[level].key < key){
+                temp = temp.right[level];
+            }
+            update[level] = temp;
+        }
+        return temp;
+    }
+
+
+    /*
+    *  Returns true if the list has key, it never allocates
+    *
+    * */
+    public boolean contains(int key){
+        IntItem temp = heads;
+
+        for(int level = levels - 1; level >= 0; level--){
+            while (temp.right[level] != null && temp.right[level].key < key){
+                temp = temp.right[level];
+            }
+        }
+        temp = temp.right[0];
+        return temp != null && temp.key == key;
+    }
+
+
+    /*
+    *   We add key to our List, false if it was already there
+    *
+    * */
+    public boolean add(int key){
+        IntItem temp = findPredecessors(key);
+        if(temp.right[0] != null && temp.right[0].key == key){
+            return false; //No duplicates!
+        }
+
+        int height = setHeight();
+        while (levels < height){ //The heads are the predecessor on new levels
+            update[levels++] = heads;
+        }
+
+        IntItem newItem = new IntItem(key, height);
+        for(int level = 0; level < height; level++){
+            newItem.right[level] = update[level].right[level];
+            update[level].right[level] = newItem;
+        }
+
+        size++;
+        modCount++;
+        return true;
+    }
+
+
+    /*
+    *   Remove key from our List, false if it was not there
+    *
+    * */
+    public boolean remove(int key){
+        IntItem temp = findPredecessors(key).right[0];
+        if(temp == null || temp.key != key){
+            return false;
+        }
+
+        //dereference the whole tower!
+        for(int level = 0; level < temp.right.length; level++){
+            update[level].right[level] = temp.right[level];
+        }
+        while (levels > 1 && heads.right[levels - 1] == null){ //Drop empty levels
+            levels--;
+        }
+
+        size--;
+        modCount++;
+        return true;
+    }
+
+
+    /*
+    *   returns First key on the list
+    * */
+    public int first(){
+        if(heads.right[0] == null){
+            throw new NoSuchElementException();
+        }
+        return heads.right[0].key;
+    }
+
+
+    /*
+    *   returns last key on the list
+    *   We go all the way right on every level and then down
+    * */
+    public int last(){
+        IntItem temp = heads;
+        for(int level = levels - 1; level >= 0; level--){
+            while (temp.right[level] != null){
+                temp = temp.right[level];
+            }
+        }
+        if(temp == heads){
+            throw new NoSuchElementException();
+        }
+        return temp.key;
+    }
+
+
+    /*
+    *   Return the size of the list
+    * */
+    @Override
+    public int size() {
+        return size;
+    }
+
+
+    /*
+    *   Clear our SkipList
+    * */
+    @Override
+    public void clear() {
+        Arrays.fill(heads.right, null);
+        levels = 1;
+        size = 0;
+        modCount++;
+    }
+
+
+    /*
+    *   All the keys in order
+    * */
+    public int[] toIntArray(){
+        int[] keys = new int[size];
+        IntItem temp = heads.right[0];
+        for(int i = 0; i < size; i++){
+            keys[i] = temp.key;
+            temp = temp.right[0];
+        }
+        return keys;
+    }
+
+
+    //Boxed versions, they unbox and use the int ones
+    @Override
+    public boolean add(Integer key) {
+        return add(key.intValue());
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return o instanceof Integer && contains(((Integer) o).intValue());
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        return o instanceof Integer && remove(((Integer) o).intValue());
+    }
+
+    @Override
+    public int hashCode() {
+        int hashCode = 0;
+        for(IntItem temp = heads.right[0]; temp != null; temp = temp.right[0]){
+            hashCode += Integer.hashCode(temp.key);
+        }
+        return hashCode;
+    }
+
+
+    /*
+    *   Return our SkipList iterator, it gives int keys with nextInt()
+    * */
+    @Override
+    public PrimitiveIterator.OfInt iterator() {
+        return new IntSkipListSetIterator();
+    }
+
+
+    /*
+    *   Spliterator over the keys, in order and without duplicates
+    * */
+    @Override
+    public Spliterator.OfInt spliterator() {
+        return Spliterators.spliterator(iterator(), size,
+                Spliterator.ORDERED | Spliterator.SORTED | Spliterator.DISTINCT
+                        | Spliterator.NONNULL | Spliterator.SIZED);
+    }
+
+
+    /*
+    *   Stream of the keys in order, without boxing
+    * */
+    public IntStream intStream(){
+        return StreamSupport.intStream(spliterator(), false);
+    }
+
+
+    /*
+    *   Item wrapper, the key is stored right here
+    *   right has the next item on each level of its tower
+    * */
+    static final class IntItem {
+        final int key;
+        final IntItem[] right;
+
+        IntItem(int key, int height){
+            this.key = key;
+            this.right = new IntItem[height];
+        }
+    }
+
+
+    /*
+    *   Iterator that walks the bottom level
+    * */
+    private class IntSkipListSetIterator implements PrimitiveIterator.OfInt {
+
+        IntItem nextItem = heads.right[0];
+        IntItem lastReturned;
+        int expectedModCount = modCount;
+
+        @Override
+        public boolean hasNext() {
+            return nextItem != null;
+        }
+
+        @Override
+        public int nextInt() {
+            if(modCount != expectedModCount){
+                throw new ConcurrentModificationException();
+            }
+            if(nextItem == null){
+                throw new NoSuchElementException();
+            }
+            lastReturned = nextItem;
+            nextItem = nextItem.right[0];
+            return lastReturned.key;
+        }
+
+        @Override
+        public void forEachRemaining(IntConsumer action) {
+            while (nextItem != null){
+                action.accept(nextInt());
+            }
+        }
+
+        @Override
+        public void remove() {
+            if(lastReturned == null){
+                throw new IllegalStateException();
+            }
+            if(modCount != expectedModCount){
+                throw new ConcurrentModificationException();
+            }
+            IntSkipListSet.this.remove(lastReturned.key);
+            lastReturned = null;
+            expectedModCount = modCount;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package skiplist;
+
+
+/*
+*   Decides how tall every new element of a SkipListSet is
+*
+*   Every element has height 1, and it gets one more level with
+*   probability promotion(), again and again, until maxHeight.
+*   So a level has about promotion() times the elements of the one below
+*
+*   Generators don't allocate anything when they are asked for a height
+*
+* */
+public interface LevelGenerator {
+
+    double ONE_OVER_E = 1 / Math.E;     //Promotion with the fewest expected comparisons per search
+
+
+    /*
+    *   Height of a new element, between 1 and maxHeight
+    *
+    *   @param  int maxHeight
+    *   @return int
+    * */
+    int nextHeight(int maxHeight);
+
+
+    /*
+    *   Probability of an element reaching the next level
+    *
+    *   @return double
+    * */
+    double promotion();
+
+
+    /*
+    *   Coin flips, every level has half the elements of the one below
+    * */
+    static LevelGenerator geometric(){
+        return new GeometricLevelGenerator(0.5, null);
+    }
+
+
+    /*
+    *   Any promotion probability between 0 and 1, like 1/2, 1/4 or ONE_OVER_E
+    *
+    *   @param  double promotion
+    * */
+    static LevelGenerator withPromotion(double promotion){
+        return new GeometricLevelGenerator(promotion, null);
+    }
+
+
+    /*
+    *   Same as geometric() but always the same heights for the same seed,
+    *   so benchmarks can be repeated
+    *
+    *   It is not thread safe, it is meant for one list
+    *
+    *   @param  long seed
+    * */
+    static LevelGenerator seeded(long seed){
+        return seeded(0.5, seed);
+    }
+
+
+    /*
+    *   Same as withPromotion(promotion) but always the same heights for the same seed
+    *
+    *   @param  double promotion
+    *   @param  long seed
+    * */
+    static LevelGenerator seeded(double promotion, long seed){
+        return new GeometricLevelGenerator(promotion, new java.util.SplittableRandom(seed));
+    }
+}
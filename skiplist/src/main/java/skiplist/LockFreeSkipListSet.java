@@ -0,0 +1,638 @@
+package skiplist;
+
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicMarkableReference;
+import java.util.concurrent.atomic.LongAdder;
+
+
+/*
+*   This Object represent a SkipList sorted set that can be shared
+*   by many threads at the same time without any lock
+*
+*   Insertion links a new tower bottom up with compareAndSet, and removal
+*   first marks the links of the tower (logical deletion) and only then
+*   unlinks it (physical deletion), following Harris and Fraser.
+*   Any thread that runs into a marked link helps unlinking it
+*
+*   Readers never block and never help, they simply skip marked items
+*
+* */
+public class LockFreeSkipListSet <T extends Comparable<T>> extends AbstractSet<T> implements SortedSet<T> {
+
+
+    static final int MAX_HEIGHT = 32;  //No tower can be taller than this
+
+    private final LockFreeItem<T> heads;                //Starting point, it has no payload and is never removed
+    private final LongAdder size = new LongAdder();     //Striped counter so writers don't fight over one field
+    private final AtomicInteger levels = new AtomicInteger(1);  //Levels of the heads in use, it never goes down
+
+
+    /*
+    *   Constructor that returns an empty SkipList
+    *
+    * */
+    public LockFreeSkipListSet(){
+        heads = new LockFreeItem<>(null, MAX_HEIGHT);
+    }
+
+
+    /*
+    *   Constructor that returns a populated SkipList Set
+    *   @param: A generic Collection
+    *
+    * */
+    public LockFreeSkipListSet(Collection<? extends T> c){
+        this();
+        addAll(c);
+    }
+
+
+    /*
+    *   Height of a new element, each level has 50% chance of
+    *   being added. We use the trailing zeros of one random int
+    *   instead of flipping a coin per level
+    *
+    *   @return     int height
+    *
+    * */
+    private static int setHeight(){
+        int bits = ThreadLocalRandom.current().nextInt() | (1 << (MAX_HEIGHT - 1));
+        return Integer.numberOfTrailingZeros(bits) + 1;
+    }
+
+
+    /*
+    *   A new tower of height levels can be linked, so searches start that high
+    *
+    *   Searches that read the old value still work, the levels below
+    *   are complete lists on their own
+    * */
+    private void raiseLevels(int height){
+        int current = levels.get();
+        while (current < height && !levels.compareAndSet(current, height)){
+            current = levels.get();
+        }
+    }
+
+
+    /*
+    *   Finds the predecessors and successors of o at every level in use,
+    *   unlinking every marked item we step over on the way
+    *
+    *   If an unlink fails somebody else changed the links, so we start again
+    *
+    *   @param  T o
+    *   @return boolean   true if o is in the set
+    *
+    * */
+    private boolean find(T o, LockFreeItem<T>[] preds, LockFreeItem<T>[] succs){
+        boolean[] marked = {false};
+
+        retry:
+        while (true){
+            LockFreeItem<T> pred = heads;
+            for(int level = levels.get() - 1; level >= 0; level--){
+                LockFreeItem<T> curr = pred.right[level].getReference();
+                while (curr != null){
+                    LockFreeItem<T> succ = curr.right[level].get(marked);
+
+                    //curr is being removed, help unlinking it
+                    while (marked[0]){
+                        if(!pred.right[level].compareAndSet(curr, succ, false, false)){
+                            continue retry;
+                        }
+                        curr = succ;
+                        if(curr == null){
+                            break;
+                        }
+                        succ = curr.right[level].get(marked);
+                    }
+
+                    //Move right while next is less than o
+                    if(curr != null && curr.payload.compareTo(o) < 0){
+                        pred = curr;
+                        curr = succ;
+                    }else{
+                        break;
+                    }
+                }
+                preds[level] = pred;
+                succs[level] = curr;
+            }
+            return succs[0] != null && succs[0].payload.compareTo(o) == 0;
+        }
+    }
+
+
+    /*
+    *   Add element t to our List
+    *
+    *   The bottom link decides whether t is in the set,
+    *   the upper links are only shortcuts and are added afterwards
+    *
+    * */
+    @Override
+    public boolean add(T t) {
+        if(t == null){
+            throw new NullPointerException();
+        }
+
+        int height = setHeight();
+        raiseLevels(height); //before the search, so it fills preds up to height
+        LockFreeItem<T>[] preds = newArray();
+        LockFreeItem<T>[] succs = newArray();
+        boolean[] marked = {false};
+
+        while (true){
+            if(find(t, preds, succs)){
+                return false; //No duplicates!
+            }
+
+            LockFreeItem<T> newItem = new LockFreeItem<>(t, height);
+            for(int level = 0; level < height; level++){
+                newItem.right[level].set(succs[level], false);
+            }
+
+            //Link it at the bottom, from here on t is in the set
+            if(!preds[0].right[0].compareAndSet(succs[0], newItem, false, false)){
+                continue;
+            }
+            size.increment();
+
+            //Now link the rest of the tower
+            for(int level = 1; level < height; level++){
+                while (true){
+                    LockFreeItem<T> pred = preds[level];
+                    LockFreeItem<T> succ = succs[level];
+
+                    //Somebody is already removing it, no need to keep going up
+                    LockFreeItem<T> current = newItem.right[level].get(marked);
+                    if(marked[0]){
+                        return true;
+                    }
+                    if(current != succ && !newItem.right[level].compareAndSet(current, succ, false, false)){
+                        continue;
+                    }
+
+                    if(pred.right[level].compareAndSet(succ, newItem, false, false)){
+                        break;
+                    }
+                    find(t, preds, succs); //Links changed, look again
+                }
+            }
+            return true;
+        }
+    }
+
+
+    /*
+    *   Remove an Object o from our SkipList set
+    *
+    *   We mark the tower from the top down, whoever marks the
+    *   bottom link is the one that removed it
+    *
+    * */
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean remove(Object o) {
+        T t = (T) o;
+        LockFreeItem<T>[] preds = newArray();
+        LockFreeItem<T>[] succs = newArray();
+        boolean[] marked = {false};
+
+        if(!find(t, preds, succs)){
+            return false;
+        }
+        LockFreeItem<T> toRemove = succs[0];
+
+        //Mark upper levels
+        for(int level = toRemove.height() - 1; level >= 1; level--){
+            LockFreeItem<T> succ = toRemove.right[level].get(marked);
+            while (!marked[0]){
+                toRemove.right[level].compareAndSet(succ, succ, false, true);
+                succ = toRemove.right[level].get(marked);
+            }
+        }
+
+        //Mark the bottom, only one thread wins this one
+        LockFreeItem<T> succ = toRemove.right[0].get(marked);
+        while (true){
+            boolean iMarkedIt = toRemove.right[0].compareAndSet(succ, succ, false, true);
+            succ = toRemove.right[0].get(marked);
+            if(iMarkedIt){
+                size.decrement();
+                find(t, preds, succs); //Unlinks it physically
+                return true;
+            }else if(marked[0]){
+                return false;
+            }
+        }
+    }
+
+
+    /*
+    *  Returns true if the list has certain element
+    *  otherwise false
+    *
+    * */
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean contains(Object o) {
+        T t = (T) Objects.requireNonNull(o);
+        LockFreeItem<T> curr = ceilingItem(t);
+        return curr != null && curr.payload.compareTo(t) == 0;
+    }
+
+
+    /*
+    *   First item not removed that is not less than t, null if there is none
+    *
+    *   It never changes any link so it never has to retry
+    * */
+    private LockFreeItem<T> ceilingItem(T t){
+        boolean[] marked = {false};
+        LockFreeItem<T> pred = heads;
+        LockFreeItem<T> curr = null;
+
+        for(int level = levels.get() - 1; level >= 0; level--){
+            curr = pred.right[level].getReference();
+            while (curr != null){
+                LockFreeItem<T> succ = curr.right[level].get(marked);
+                while (marked[0] && succ != null){ //skip removed items
+                    curr = succ;
+                    succ = curr.right[level].get(marked);
+                }
+                if(marked[0]){ //the last one on this level is removed
+                    curr = null;
+                    break;
+                }
+                if(curr.payload.compareTo(t) < 0){
+                    pred = curr;
+                    curr = succ;
+                }else{
+                    break;
+                }
+            }
+        }
+        return curr;
+    }
+
+
+    /*
+    *   Return the size of the list
+    *   While writers are running this is only an estimate
+    * */
+    @Override
+    public int size() {
+        long sum = size.sum();
+        if(sum > Integer.MAX_VALUE){
+            return Integer.MAX_VALUE;
+        }
+        return sum < 0 ? 0 : (int) sum;
+    }
+
+
+    /*
+    *   Tells whether the list is empty or not
+    * */
+    @Override
+    public boolean isEmpty() {
+        return firstItem() == null;
+    }
+
+
+    /*
+    *   First item on the bottom level that is not removed
+    * */
+    private LockFreeItem<T> firstItem(){
+        boolean[] marked = {false};
+        LockFreeItem<T> temp = heads.right[0].getReference();
+        while (temp != null){
+            LockFreeItem<T> next = temp.right[0].get(marked);
+            if(!marked[0]){
+                return temp;
+            }
+            temp = next;
+        }
+        return null;
+    }
+
+
+    /*
+    *   returns First element on the list
+    * */
+    @Override
+    public T first() {
+        LockFreeItem<T> first = firstItem();
+        if(first == null){
+            throw new NoSuchElementException();
+        }
+        return first.payload;
+    }
+
+
+    /*
+    *   returns last Element on the list
+    * */
+    @Override
+    public T last() {
+        LockFreeItem<T> last = lowerItem(null);
+        if(last == null){
+            throw new NoSuchElementException();
+        }
+        return last.payload;
+    }
+
+
+    /*
+    *   Last item not removed that is less than t, null if there is none
+    *   A null t goes after everything, so it is the last item
+    *
+    *   We go as far right as possible on every level and then down
+    * */
+    private LockFreeItem<T> lowerItem(T t){
+        boolean[] marked = {false};
+
+        while (true){
+            LockFreeItem<T> temp = heads;
+            for(int level = levels.get() - 1; level >= 0; level--){
+                LockFreeItem<T> next = temp.right[level].getReference();
+                while (next != null && (t == null || next.payload.compareTo(t) < 0)){
+                    LockFreeItem<T> after = next.right[level].get(marked);
+                    if(!marked[0]){
+                        temp = next;
+                    }
+                    next = after;
+                }
+            }
+
+            if(temp == heads){
+                return null;
+            }
+
+            //It could have been removed while we were going down, try again
+            temp.right[0].get(marked);
+            if(!marked[0]){
+                return temp;
+            }
+        }
+    }
+
+
+    /*
+    *   Clear our SkipList, one element at a time so concurrent
+    *   readers always see a valid list
+    * */
+    @Override
+    public void clear() {
+        LockFreeItem<T> temp;
+        while ((temp = firstItem()) != null){
+            remove(temp.payload);
+        }
+    }
+
+
+    /*
+    *   Return our SkipList iterator!
+    *   It is weakly consistent, it never throws ConcurrentModificationException
+    * */
+    @Override
+    public Iterator<T> iterator() {
+        return new LockFreeIterator(null, null);
+    }
+
+
+    @SuppressWarnings("unchecked")
+    private LockFreeItem<T>[] newArray(){
+        return (LockFreeItem<T>[]) new LockFreeItem[MAX_HEIGHT];
+    }
+
+
+    /*
+    *   Item wrapper, one per element
+    *   every right link carries a mark that means "this item is being removed"
+    * */
+    static final class LockFreeItem<T> {
+        final T payload;
+        final AtomicMarkableReference<LockFreeItem<T>>[] right;
+
+        @SuppressWarnings("unchecked")
+        LockFreeItem(T payload, int height){
+            this.payload = payload;
+            right = (AtomicMarkableReference<LockFreeItem<T>>[]) new AtomicMarkableReference[height];
+            for(int i = 0; i < height; i++){
+                right[i] = new AtomicMarkableReference<>(null, false);
+            }
+        }
+
+        int height(){
+            return right.length;
+        }
+    }
+
+
+    /*
+    *   Iterator that walks the bottom level skipping removed items,
+    *   from lo inclusive to hi exclusive, a null bound means there is none
+    * */
+    private class LockFreeIterator implements Iterator<T> {
+
+        final T hi;
+        LockFreeItem<T> nextItem;
+        LockFreeItem<T> lastReturned;
+
+        LockFreeIterator(T lo, T hi){
+            this.hi = hi;
+            nextItem = lo == null ? firstItem() : ceilingItem(lo);
+            if(nextItem != null && hi != null && nextItem.payload.compareTo(hi) >= 0){
+                nextItem = null;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return nextItem != null;
+        }
+
+        @Override
+        public T next() {
+            if(nextItem == null){
+                throw new NoSuchElementException();
+            }
+            lastReturned = nextItem;
+
+            //Look for the next one that is not removed
+            boolean[] marked = {false};
+            LockFreeItem<T> temp = nextItem.right[0].getReference();
+            while (temp != null){
+                LockFreeItem<T> after = temp.right[0].get(marked);
+                if(!marked[0]){
+                    break;
+                }
+                temp = after;
+            }
+            nextItem = temp != null && (hi == null || temp.payload.compareTo(hi) < 0) ? temp : null;
+            return lastReturned.payload;
+        }
+
+        @Override
+        public void remove() {
+            if(lastReturned == null){
+                throw new IllegalStateException();
+            }
+            LockFreeSkipListSet.this.remove(lastReturned.payload);
+            lastReturned = null;
+        }
+    }
+
+
+
+
+    @Override
+    public Comparator<? super T> comparator() {
+        return null; //natural order
+    }
+
+
+    /*
+    *   Views of a range of the set, like on a TreeSet their bounds have to be inside ours
+    *   They are weakly consistent, just like the set
+    * */
+    @Override
+    public SortedSet<T> subSet(T fromElement, T toElement) {
+        return new Range(null, null).subSet(fromElement, toElement);
+    }
+
+    @Override
+    public SortedSet<T> headSet(T toElement) {
+        return new Range(null, null).headSet(toElement);
+    }
+
+    @Override
+    public SortedSet<T> tailSet(T fromElement) {
+        return new Range(null, null).tailSet(fromElement);
+    }
+
+
+    /*
+    *   Elements from lo, inclusive, to hi, exclusive, a null bound means there is none
+    *
+    *   Everything goes to the set, the view only checks the bounds.
+    *   size walks the range, so like size() of the set it is only an
+    *   estimate while writers are running
+    * */
+    private final class Range extends AbstractSet<T> implements SortedSet<T> {
+
+        private final T lo, hi;
+
+
+        Range(T lo, T hi){
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+
+        private boolean inRange(T t){
+            return (lo == null || t.compareTo(lo) >= 0) && (hi == null || t.compareTo(hi) < 0);
+        }
+
+        private void checkInRange(T t){
+            Objects.requireNonNull(t);
+            if(lo != null && t.compareTo(lo) < 0 || hi != null && t.compareTo(hi) > 0){
+                throw new IllegalArgumentException("element out of range");
+            }
+        }
+
+
+        @Override
+        public int size() {
+            int size = 0;
+            for(Iterator<T> it = iterator(); it.hasNext(); it.next()){
+                size++;
+            }
+            return size;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return !iterator().hasNext();
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean contains(Object o) {
+            T t = (T) Objects.requireNonNull(o);
+            return inRange(t) && LockFreeSkipListSet.this.contains(t);
+        }
+
+        @Override
+        public boolean add(T t) {
+            if(!inRange(Objects.requireNonNull(t))){
+                throw new IllegalArgumentException("element out of range");
+            }
+            return LockFreeSkipListSet.this.add(t);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean remove(Object o) {
+            T t = (T) Objects.requireNonNull(o);
+            return inRange(t) && LockFreeSkipListSet.this.remove(t);
+        }
+
+
+        @Override
+        public T first() {
+            Iterator<T> it = iterator();
+            if(!it.hasNext()){
+                throw new NoSuchElementException();
+            }
+            return it.next();
+        }
+
+        @Override
+        public T last() {
+            LockFreeItem<T> last = lowerItem(hi);
+            if(last == null || !inRange(last.payload)){
+                throw new NoSuchElementException();
+            }
+            return last.payload;
+        }
+
+
+        @Override
+        public SortedSet<T> subSet(T fromElement, T toElement) {
+            checkInRange(fromElement);
+            checkInRange(toElement);
+            if(fromElement.compareTo(toElement) > 0){
+                throw new IllegalArgumentException("fromElement > toElement");
+            }
+            return new Range(fromElement, toElement);
+        }
+
+        @Override
+        public SortedSet<T> headSet(T toElement) {
+            checkInRange(toElement);
+            return new Range(lo, toElement);
+        }
+
+        @Override
+        public SortedSet<T> tailSet(T fromElement) {
+            checkInRange(fromElement);
+            return new Range(fromElement, hi);
+        }
+
+
+        @Override
+        public Comparator<? super T> comparator() {
+            return null;
+        }
+
+        @Override
+        public Iterator<T> iterator() {
+            return new LockFreeIterator(lo, hi);
+        }
+    }
+}
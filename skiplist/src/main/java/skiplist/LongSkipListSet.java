@@ -0,0 +1,335 @@
+package skiplist;
+
+import java.util.*;
+import java.util.function.LongConsumer;
+import java.util.stream.LongStream;
+import java.util.stream.StreamSupport;
+
+
+/*
+*   This Object represent a SkipList set of long keys
+*
+*   It uses the same search, add and remove as SkipListSet, but every
+*   key is kept inside its item instead of in a Long, and keys are
+*   compared with < and == instead of compareTo
+*
+*   It is still a Set<Long>, the boxed methods simply unbox and go to
+*   the long ones
+*
+* */
+public class LongSkipListSet extends AbstractSet<Long> {
+
+
+    static final int MAX_HEIGHT = 32;  //No tower can be taller than this
+
+    private final LevelGenerator levelGenerator = LevelGenerator.geometric();    //Heights of new elements
+
+    private int size = 0;           //keeps track of how many elements are on the SkipList
+    private int levels = 1;         //How many levels of the heads are in use
+    private int modCount = 0;       //Counts every change of structure, so iterators can notice them
+
+    private final LongItem heads = new LongItem(0, MAX_HEIGHT);      //This is always the starting point
+    private final LongItem[] update = new LongItem[MAX_HEIGHT];      //Reused by add and remove so they don't allocate
+
+
+    /*
+    *   Constructor that returns an empty SkipList
+    *
+    * */
+    public LongSkipListSet(){
+    }
+
+
+    /*
+    *   Constructor that returns a SkipList with the given keys
+    *   @param: long... keys
+    *
+    * */
+    public LongSkipListSet(long... keys){
+        for(long key : keys){
+            add(key);
+        }
+    }
+
+
+    /*
+    *   Height of a new element, each level has 50% chance of being added,
+    *   up to MAX_HEIGHT, the same as SkipListSet with its default generator
+    *
+    *   @return     int height
+    *
+    * */
+    private int setHeight(){
+        return levelGenerator.nextHeight(MAX_HEIGHT);
+    }
+
+
+    /*
+    *   Search for key from the top of the heads, saving the
+    *   predecessor of key on every level in update
+    *
+    *   @return     the predecessor of key on the bottom level
+    *
+    * */
+    private LongItem findPredecessors(long key){
+        LongItem temp = heads;
+
+        for(int level = levels - 1; level >= 0; level--){
+            while (temp.right[level] != null && temp.right[level].key < key){
+                temp = temp.right[level];
+            }
+            update[level] = temp;
+        }
+        return temp;
+    }
+
+
+    /*
+    *  Returns true if the list has key, it never allocates
+    *
+    * */
+    public boolean contains(long key){
+        LongItem temp = heads;
+
+        for(int level = levels - 1; level >= 0; level--){
+            while (temp.right[level] != null && temp.right[level].key < key){
+                temp = temp.right[level];
+            }
+        }
+        temp = temp.right[0];
+        return temp != null && temp.key == key;
+    }
+
+
+    /*
+    *   We add key to our List, false if it was already there
+    *
+    * */
+    public boolean add(long key){
+        LongItem temp = findPredecessors(key);
+        if(temp.right[0] != null && temp.right[0].key == key){
+            return false; //No duplicates!
+        }
+
+        int height = setHeight();
+        while (levels < height){ //The heads are the predecessor on new levels
+            update[levels++] = heads;
+        }
+
+        LongItem newItem = new LongItem(key, height);
+        for(int level = 0; level < height; level++){
+            newItem.right[level] = update[level].right[level];
+            update[level].right[level] = newItem;
+        }
+
+        size++;
+        modCount++;
+        return true;
+    }
+
+
+    /*
+    *   Remove key from our List, false if it was not there
+    *
+    * */
+    public boolean remove(long key){
+        LongItem temp = findPredecessors(key).right[0];
+        if(temp == null || temp.key != key){
+            return false;
+        }
+
+        //dereference the whole tower!
+        for(int level = 0; level < temp.right.length; level++){
+            update[level].right[level] = temp.right[level];
+        }
+        while (levels > 1 && heads.right[levels - 1] == null){ //Drop empty levels
+            levels--;
+        }
+
+        size--;
+        modCount++;
+        return true;
+    }
+
+
+    /*
+    *   returns First key on the list
+    * */
+    public long first(){
+        if(heads.right[0] == null){
+            throw new NoSuchElementException();
+        }
+        return heads.right[0].key;
+    }
+
+
+    /*
+    *   returns last key on the list
+    *   We go all the way right on every level and then down
+    * */
+    public long last(){
+        LongItem temp = heads;
+        for(int level = levels - 1; level >= 0; level--){
+            while (temp.right[level] != null){
+                temp = temp.right[level];
+            }
+        }
+        if(temp == heads){
+            throw new NoSuchElementException();
+        }
+        return temp.key;
+    }
+
+
+    /*
+    *   Return the size of the list
+    * */
+    @Override
+    public int size() {
+        return size;
+    }
+
+
+    /*
+    *   Clear our SkipList
+    * */
+    @Override
+    public void clear() {
+        Arrays.fill(heads.right, null);
+        levels = 1;
+        size = 0;
+        modCount++;
+    }
+
+
+    /*
+    *   All the keys in order
+    * */
+    public long[] toLongArray(){
+        long[] keys = new long[size];
+        LongItem temp = heads.right[0];
+        for(int i = 0; i < size; i++){
+            keys[i] = temp.key;
+            temp = temp.right[0];
+        }
+        return keys;
+    }
+
+
+    //Boxed versions, they unbox and use the long ones
+    @Override
+    public boolean add(Long key) {
+        return add(key.longValue());
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return o instanceof Long && contains(((Long) o).longValue());
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        return o instanceof Long && remove(((Long) o).longValue());
+    }
+
+    @Override
+    public int hashCode() {
+        int hashCode = 0;
+        for(LongItem temp = heads.right[0]; temp != null; temp = temp.right[0]){
+            hashCode += Long.hashCode(temp.key);
+        }
+        return hashCode;
+    }
+
+
+    /*
+    *   Return our SkipList iterator, it gives long keys with nextLong()
+    * */
+    @Override
+    public PrimitiveIterator.OfLong iterator() {
+        return new LongSkipListSetIterator();
+    }
+
+
+    /*
+    *   Spliterator over the keys, in order and without duplicates
+    * */
+    @Override
+    public Spliterator.OfLong spliterator() {
+        return Spliterators.spliterator(iterator(), size,
+                Spliterator.ORDERED | Spliterator.SORTED | Spliterator.DISTINCT
+                        | Spliterator.NONNULL | Spliterator.SIZED);
+    }
+
+
+    /*
+    *   Stream of the keys in order, without boxing
+    * */
+    public LongStream longStream(){
+        return StreamSupport.longStream(spliterator(), false);
+    }
+
+
+    /*
+    *   Item wrapper, the key is stored right here
+    *   right has the next item on each level of its tower
+    * */
+    static final class LongItem {
+        final long key;
+        final LongItem[] right;
+
+        LongItem(long key, int height){
+            this.key = key;
+            this.right = new LongItem[height];
+        }
+    }
+
+
+    /*
+    *   Iterator that walks the bottom level
+    * */
+    private class LongSkipListSetIterator implements PrimitiveIterator.OfLong {
+
+        LongItem nextItem = heads.right[0];
+        LongItem lastReturned;
+        int expectedModCount = modCount;
+
+        @Override
+        public boolean hasNext() {
+            return nextItem != null;
+        }
+
+        @Override
+        public long nextLong() {
+            if(modCount != expectedModCount){
+                throw new ConcurrentModificationException();
+            }
+            if(nextItem == null){
+                throw new NoSuchElementException();
+            }
+            lastReturned = nextItem;
+            nextItem = nextItem.right[0];
+            return lastReturned.key;
+        }
+
+        @Override
+        public void forEachRemaining(LongConsumer action) {
+            while (nextItem != null){
+                action.accept(nextLong());
+            }
+        }
+
+        @Override
+        public void remove() {
+            if(lastReturned == null){
+                throw new IllegalStateException();
+            }
+            if(modCount != expectedModCount){
+                throw new ConcurrentModificationException();
+            }
+            LongSkipListSet.this.remove(lastReturned.key);
+            lastReturned = null;
+            expectedModCount = modCount;
+        }
+    }
+}
@@ -0,0 +1,468 @@
+package skiplist;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+
+/*
+*   This Object represent a SkipList set of long keys that lives in a
+*   memory mapped file instead of on the Java heap
+*
+*   Items are not objects, they are records inside the file and link to
+*   each other by offset, so opening an existing file only reads the
+*   header, nothing is rebuilt. Searching only reads the mapped buffer
+*   and never allocates
+*
+*   File layout, little endian, offsets are bytes from the start of the file:
+*       header:     magic, version, size, levels, top (first byte never used)
+*                   and one free list per height
+*       heads:      an item of height MAX_HEIGHT
+*       items:      height (int), key (long), right offsets (int x height)
+*
+*   Offset 0 means null, the file can grow up to 2 GB
+*
+*   Changes reach the file when the OS writes the pages back,
+*   force() or close() write them right away
+*
+*   Nothing is written atomically, an add or remove changes the links,
+*   the free lists and SIZE_AT one after another. If the process or the
+*   machine dies in the middle of one, the file can have links and a size
+*   that don't agree, or a lost item. It is not a crash safe store, keep
+*   what it needs to be built again somewhere else
+*
+* */
+public class OffHeapSkipListSet extends AbstractSet<Long> implements Closeable {
+
+
+    static final int MAX_HEIGHT = 32;  //No tower can be taller than this
+
+    private static final int MAGIC = 0x534b4950;   //"SKIP"
+    private static final int VERSION = 1;
+
+    //Header fields
+    private static final int MAGIC_AT = 0;
+    private static final int VERSION_AT = 4;
+    private static final int SIZE_AT = 8;
+    private static final int LEVELS_AT = 12;
+    private static final int TOP_AT = 16;
+    private static final int FREE_AT = 20;                          //MAX_HEIGHT free lists, one per height
+    private static final int HEADS = FREE_AT + 4 * MAX_HEIGHT;      //The heads item comes right after the header
+
+    //Item fields, relative to the item offset
+    private static final int HEIGHT = 0;
+    private static final int KEY = 4;
+    private static final int RIGHT = 12;
+
+    private static final int INITIAL_CAPACITY = 1 << 20;
+
+
+    private final FileChannel channel;
+    private MappedByteBuffer buffer;
+    private int modCount = 0;
+    private final int[] update = new int[MAX_HEIGHT];   //Reused by add and remove so they don't allocate
+    private final LevelGenerator levelGenerator = LevelGenerator.geometric();  //Heights of new elements
+
+
+    /*
+    *   Opens the set stored in file, or creates it if the file
+    *   doesn't exist or is empty
+    *
+    *   @param  Path file
+    * */
+    public OffHeapSkipListSet(Path file) throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        try{
+            if(channel.size() == 0){
+                map(INITIAL_CAPACITY);
+                buffer.putInt(MAGIC_AT, MAGIC);
+                buffer.putInt(VERSION_AT, VERSION);
+                buffer.putInt(SIZE_AT, 0);
+                buffer.putInt(LEVELS_AT, 1);
+                buffer.putInt(HEADS + HEIGHT, MAX_HEIGHT);
+                buffer.putInt(TOP_AT, HEADS + itemSize(MAX_HEIGHT));
+            }else{
+                if(channel.size() > Integer.MAX_VALUE){
+                    throw new IOException("file is too big for a skip list: " + file);
+                }
+                if(channel.size() < HEADS + itemSize(MAX_HEIGHT)){
+                    throw new IOException("not a skip list file: " + file);
+                }
+                map((int) channel.size());
+                if(buffer.getInt(MAGIC_AT) != MAGIC || buffer.getInt(VERSION_AT) != VERSION){
+                    throw new IOException("not a skip list file: " + file);
+                }
+            }
+        }catch (IOException | RuntimeException e){
+            channel.close();
+            throw e;
+        }
+    }
+
+
+    private void map(int capacity) throws IOException {
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+
+    private static int itemSize(int height){
+        return RIGHT + 4 * height;
+    }
+
+    //Item accessors
+    private int height(int item){
+        return buffer.getInt(item + HEIGHT);
+    }
+
+    private long key(int item){
+        return buffer.getLong(item + KEY);
+    }
+
+    private int right(int item, int level){
+        return buffer.getInt(item + RIGHT + 4 * level);
+    }
+
+    private void setRight(int item, int level, int to){
+        buffer.putInt(item + RIGHT + 4 * level, to);
+    }
+
+    private int levels(){
+        return buffer.getInt(LEVELS_AT);
+    }
+
+
+    /*
+    *   Gets space for an item of the given height
+    *
+    *   Items that were removed are kept on a free list per height and
+    *   reused first, else we take it from the end, growing the file
+    *   when it is full
+    *
+    *   @return     int offset of the item
+    * */
+    private int allocate(int height){
+        int freeAt = FREE_AT + 4 * (height - 1);
+        int item = buffer.getInt(freeAt);
+
+        if(item != 0){ //Reuse one, the free list goes through the first right link
+            buffer.putInt(freeAt, right(item, 0));
+        }else{
+            int top = buffer.getInt(TOP_AT);
+            long end = (long) top + itemSize(height);
+            if(end > buffer.capacity()){
+                grow(end);
+            }
+            item = top;
+            buffer.putInt(TOP_AT, (int) end);
+        }
+
+        buffer.putInt(item + HEIGHT, height);
+        for(int level = 0; level < height; level++){
+            setRight(item, level, 0);
+        }
+        return item;
+    }
+
+
+    /*
+    *   Puts a removed item on the free list of its height
+    * */
+    private void free(int item){
+        int freeAt = FREE_AT + 4 * (height(item) - 1);
+        setRight(item, 0, buffer.getInt(freeAt));
+        buffer.putInt(freeAt, item);
+    }
+
+
+    /*
+    *   Maps a bigger part of the file, at least twice as big
+    * */
+    private void grow(long needed){
+        long capacity = Math.max(needed, 2L * buffer.capacity());
+        if(needed > Integer.MAX_VALUE){
+            throw new IllegalStateException("skip list file is full");
+        }
+        try{
+            map((int) Math.min(capacity, Integer.MAX_VALUE));
+        }catch (IOException e){
+            throw new UncheckedIOException(e);
+        }
+    }
+
+
+    /*
+    *   Height of a new element, each level has 50% chance of being added,
+    *   up to MAX_HEIGHT, the same as SkipListSet with its default generator
+    *
+    *   @return     int height
+    *
+    * */
+    private int setHeight(){
+        return levelGenerator.nextHeight(MAX_HEIGHT);
+    }
+
+
+    /*
+    *   Search for key from the top of the heads, saving the
+    *   predecessor of key on every level in update
+    *
+    *   @return     the predecessor of key on the bottom level
+    *
+    * */
+    private int findPredecessors(long key){
+        int temp = HEADS;
+
+        for(int level = levels() - 1; level >= 0; level--){
+            int next = right(temp, level);
+            while (next != 0 && key(next) < key){
+                temp = next;
+                next = right(temp, level);
+            }
+            update[level] = temp;
+        }
+        return temp;
+    }
+
+
+    /*
+    *  Returns true if the list has key, it only reads the buffer
+    *
+    * */
+    public boolean contains(long key){
+        int temp = HEADS;
+
+        for(int level = levels() - 1; level >= 0; level--){
+            int next = right(temp, level);
+            while (next != 0 && key(next) < key){
+                temp = next;
+                next = right(temp, level);
+            }
+        }
+        temp = right(temp, 0);
+        return temp != 0 && key(temp) == key;
+    }
+
+
+    /*
+    *   We add key to our List, false if it was already there
+    *
+    * */
+    public boolean add(long key){
+        int temp = right(findPredecessors(key), 0);
+        if(temp != 0 && key(temp) == key){
+            return false; //No duplicates!
+        }
+
+        int height = setHeight();
+        int levels = levels();
+        if(levels < height){ //The heads are the predecessor on new levels
+            for(int level = levels; level < height; level++){
+                update[level] = HEADS;
+            }
+            buffer.putInt(LEVELS_AT, height);
+        }
+
+        int newItem = allocate(height);
+        buffer.putLong(newItem + KEY, key);
+        for(int level = 0; level < height; level++){
+            setRight(newItem, level, right(update[level], level));
+            setRight(update[level], level, newItem);
+        }
+
+        int size = size() + 1;
+        buffer.putInt(SIZE_AT, size);
+        modCount++;
+        return true;
+    }
+
+
+    /*
+    *   Remove key from our List, false if it was not there
+    *
+    * */
+    public boolean remove(long key){
+        int temp = right(findPredecessors(key), 0);
+        if(temp == 0 || key(temp) != key){
+            return false;
+        }
+
+        //dereference the whole tower!
+        int height = height(temp);
+        for(int level = 0; level < height; level++){
+            setRight(update[level], level, right(temp, level));
+        }
+        free(temp);
+
+        int levels = levels();
+        while (levels > 1 && right(HEADS, levels - 1) == 0){ //Drop empty levels
+            levels--;
+        }
+        buffer.putInt(LEVELS_AT, levels);
+
+        int size = size() - 1;
+        buffer.putInt(SIZE_AT, size);
+        modCount++;
+        return true;
+    }
+
+
+    /*
+    *   returns First key on the list
+    * */
+    public long first(){
+        int first = right(HEADS, 0);
+        if(first == 0){
+            throw new NoSuchElementException();
+        }
+        return key(first);
+    }
+
+
+    /*
+    *   returns last key on the list
+    *   We go all the way right on every level and then down
+    * */
+    public long last(){
+        int temp = HEADS;
+        for(int level = levels() - 1; level >= 0; level--){
+            while (right(temp, level) != 0){
+                temp = right(temp, level);
+            }
+        }
+        if(temp == HEADS){
+            throw new NoSuchElementException();
+        }
+        return key(temp);
+    }
+
+
+    /*
+    *   Return the size of the list
+    * */
+    @Override
+    public int size() {
+        return buffer.getInt(SIZE_AT);
+    }
+
+
+    /*
+    *   Clear our SkipList, the file keeps its size
+    *   but all of it can be used again
+    * */
+    @Override
+    public void clear() {
+        for(int i = 0; i < MAX_HEIGHT; i++){
+            buffer.putInt(FREE_AT + 4 * i, 0);
+            setRight(HEADS, i, 0);
+        }
+        buffer.putInt(SIZE_AT, 0);
+        buffer.putInt(LEVELS_AT, 1);
+        buffer.putInt(TOP_AT, HEADS + itemSize(MAX_HEIGHT));
+        modCount++;
+    }
+
+
+    /*
+    *   Writes every change to the file now
+    * */
+    public void force(){
+        buffer.force();
+    }
+
+
+    /*
+    *   Writes every change and closes the file
+    * */
+    @Override
+    public void close() throws IOException {
+        buffer.force();
+        channel.close();
+    }
+
+
+    //Boxed versions, they unbox and use the long ones
+    @Override
+    public boolean add(Long key) {
+        return add(key.longValue());
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return o instanceof Long && contains(((Long) o).longValue());
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        return o instanceof Long && remove(((Long) o).longValue());
+    }
+
+
+    /*
+    *   Return our SkipList iterator, it gives long keys with nextLong()
+    * */
+    @Override
+    public PrimitiveIterator.OfLong iterator() {
+        return new OffHeapIterator();
+    }
+
+
+    /*
+    *   Spliterator over the keys, in order and without duplicates
+    * */
+    @Override
+    public Spliterator.OfLong spliterator() {
+        return Spliterators.spliterator(iterator(), size(),
+                Spliterator.ORDERED | Spliterator.SORTED | Spliterator.DISTINCT
+                        | Spliterator.NONNULL | Spliterator.SIZED);
+    }
+
+
+    /*
+    *   Iterator that walks the bottom level by offset
+    * */
+    private class OffHeapIterator implements PrimitiveIterator.OfLong {
+
+        int nextItem = right(HEADS, 0);
+        int lastReturned = 0;
+        int expectedModCount = modCount;
+
+        @Override
+        public boolean hasNext() {
+            return nextItem != 0;
+        }
+
+        @Override
+        public long nextLong() {
+            if(modCount != expectedModCount){
+                throw new ConcurrentModificationException();
+            }
+            if(nextItem == 0){
+                throw new NoSuchElementException();
+            }
+            lastReturned = nextItem;
+            nextItem = right(nextItem, 0);
+            return key(lastReturned);
+        }
+
+        @Override
+        public void remove() {
+            if(lastReturned == 0){
+                throw new IllegalStateException();
+            }
+            if(modCount != expectedModCount){
+                throw new ConcurrentModificationException();
+            }
+            OffHeapSkipListSet.this.remove(key(lastReturned));
+            lastReturned = 0;
+            expectedModCount = modCount;
+        }
+    }
+}
@@ -0,0 +1,741 @@
+package skiplist;
+
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+
+/*
+*   Sorted set shared by many threads, made of independent SkipListSets
+*   that each hold one range of the keys (a shard)
+*
+*   Every shard has its own lock, so writers on different ranges never
+*   meet, not even on the heads. A point operation finds its shard with
+*   a binary search over the lower bounds of the shards, and then only
+*   goes down that one list.
+*
+*   Shards split at their median when they grow more than twice the
+*   average (or while there are fewer shards than asked for), and merge
+*   with a neighbour when they shrink under a quarter of it. Resharding
+*   cuts or joins the lists with SkipListSet split and concat, in O(log n),
+*   retires the old shards and publishes a new table of shards;
+*   anyone that locks a retired shard routes again with the new table
+*
+*   Iteration and range views go shard after shard in key order. They are
+*   weakly consistent, like the ones of ConcurrentSkipListSet: elements are
+*   read in batches under the lock of their shard, and every batch starts
+*   searching from the last element we returned
+*
+* */
+public class ShardedSkipListSet <T extends Comparable<T>> extends AbstractSet<T> implements SortedSet<T> {
+
+
+    static final int DEFAULT_SHARDS = 16;
+    static final int MIN_SPLIT = 4096;     //Smaller shards are never split
+    private static final int BATCH = 256;  //Elements iterators read with every lock
+
+
+    /*
+    *   One range of keys, from lower (inclusive) up to upper (exclusive),
+    *   null means there is no bound on that side
+    *
+    *   Its range never changes, when the shard is split or merged it is
+    *   retired and new shards take its place
+    * */
+    static final class Shard<T extends Comparable<T>> {
+        final T lower, upper;
+        final SkipListSet<T> set;
+        final ReentrantLock lock = new ReentrantLock();
+        boolean retired;    //only used with the lock
+
+
+        Shard(T lower, T upper, SkipListSet<T> set){
+            this.lower = lower;
+            this.upper = upper;
+            this.set = set;
+        }
+    }
+
+
+    private final int targetShards;                 //How many shards we try to keep
+    private volatile Shard<T>[] shards;             //In key order, replaced on every split or merge
+    private final Object reshardLock = new Object();  //Only one split or merge at a time
+    private final LongAdder size = new LongAdder();   //Only changed with the lock of a shard
+    private volatile int splitSize = MIN_SPLIT;     //A shard bigger than this checks if it should split
+    private volatile int mergeSize = 0;             //A shard smaller than this checks if it should merge
+
+
+    /*
+    *   Constructor that returns an empty set with DEFAULT_SHARDS shards
+    *
+    * */
+    public ShardedSkipListSet(){
+        this(DEFAULT_SHARDS);
+    }
+
+
+    /*
+    *   Constructor that returns an empty set that grows up to targetShards shards,
+    *   it starts with one and splits it as it fills up
+    *
+    *   @param: int targetShards
+    * */
+    public ShardedSkipListSet(int targetShards){
+        if(targetShards < 1){
+            throw new IllegalArgumentException("targetShards must be at least 1: " + targetShards);
+        }
+        this.targetShards = targetShards;
+        this.shards = newTable(1);
+        this.shards[0] = new Shard<>(null, null, new SkipListSet<T>());
+    }
+
+
+    /*
+    *   Constructor that returns a populated set, c is also the sample the
+    *   split points come from: its elements are cut in targetShards
+    *   ranges of the same size
+    *
+    *   @param: int targetShards
+    *   @param: A generic Collection
+    * */
+    @SuppressWarnings("unchecked")
+    public ShardedSkipListSet(int targetShards, Collection<? extends T> c){
+        this(targetShards);
+        Object[] sorted = new SkipListSet<T>(c).toArray();
+        int n = Math.min(targetShards, Math.max(sorted.length, 1));
+
+        Shard<T>[] table = newTable(n);
+        for(int i = 0; i < n; i++){
+            int from = (int) ((long) sorted.length * i / n);
+            int to = (int) ((long) sorted.length * (i + 1) / n);
+            T lower = i == 0 ? null : (T) sorted[from];
+            T upper = i == n - 1 ? null : (T) sorted[to];
+            table[i] = new Shard<>(lower, upper, copyOf(sorted, from, to));
+        }
+        size.add(sorted.length);
+        shards = table;
+        thresholds(table.length);
+    }
+
+
+    @SuppressWarnings("unchecked")
+    private static <T extends Comparable<T>> Shard<T>[] newTable(int length){
+        return (Shard<T>[]) new Shard[length];
+    }
+
+    //Shard list with sorted[from] up to sorted[to - 1], built in one pass
+    @SuppressWarnings("unchecked")
+    private static <T extends Comparable<T>> SkipListSet<T> copyOf(Object[] sorted, int from, int to){
+        return new SkipListSet<>((List<T>) (List<?>) Arrays.asList(sorted).subList(from, to));
+    }
+
+
+    /*
+    *   Index of the shard that holds t, or with below the one that holds
+    *   the elements right before t. A null t is the start of the keys, or
+    *   with below their end
+    * */
+    private static <T extends Comparable<T>> int route(Shard<T>[] table, T t, boolean below){
+        if(t == null){
+            return below ? table.length - 1 : 0;
+        }
+        int lo = 0;     //the first shard has no lower bound, it always qualifies
+        int hi = table.length - 1;
+        while (lo < hi){
+            int mid = (lo + hi + 1) >>> 1;
+            int c = table[mid].lower.compareTo(t);
+            if(c < 0 || c == 0 && !below){
+                lo = mid;
+            }else{
+                hi = mid - 1;
+            }
+        }
+        return lo;
+    }
+
+
+    /*
+    *   Locks and returns the shard route picks, if it was retired
+    *   before we got its lock we route again
+    * */
+    private Shard<T> lockShard(T t, boolean below){
+        while (true){
+            Shard<T>[] table = shards;
+            Shard<T> shard = table[route(table, t, below)];
+            shard.lock.lock();
+            if(!shard.retired){
+                return shard;
+            }
+            shard.lock.unlock();
+        }
+    }
+
+
+    @Override
+    public int size() {
+        return (int) Math.min(size.sum(), Integer.MAX_VALUE);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size.sum() == 0;
+    }
+
+
+    /*
+    *   How many shards the set has now
+    * */
+    public int shardCount(){
+        return shards.length;
+    }
+
+
+    /*
+    *   Returns true if the set has o
+    * */
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean contains(Object o) {
+        T t = (T) Objects.requireNonNull(o);
+        Shard<T> shard = lockShard(t, false);
+        try{
+            return shard.set.contains(t);
+        }finally{
+            shard.lock.unlock();
+        }
+    }
+
+
+    /*
+    *   Adds t to its shard, and checks if the shard got too big
+    * */
+    @Override
+    public boolean add(T t) {
+        Objects.requireNonNull(t);
+        Shard<T> shard = lockShard(t, false);
+        int n;
+        try{
+            if(!shard.set.add(t)){
+                return false;
+            }
+            size.increment();
+            n = shard.set.size();
+        }finally{
+            shard.lock.unlock();
+        }
+        if(n > splitSize || n >= MIN_SPLIT && shards.length < targetShards){
+            maybeSplit(shard);
+        }
+        return true;
+    }
+
+
+    /*
+    *   Removes o from its shard, and checks if the shard got too small
+    * */
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean remove(Object o) {
+        T t = (T) Objects.requireNonNull(o);
+        Shard<T> shard = lockShard(t, false);
+        int n;
+        try{
+            if(!shard.set.remove(t)){
+                return false;
+            }
+            size.decrement();
+            n = shard.set.size();
+        }finally{
+            shard.lock.unlock();
+        }
+        if(n < mergeSize){
+            maybeMerge(shard);
+        }
+        return true;
+    }
+
+
+    /*
+    *   Removes every element, the set goes back to one empty shard
+    * */
+    @Override
+    public void clear() {
+        synchronized (reshardLock){
+            Shard<T>[] table = shards;
+            for(Shard<T> shard : table){
+                shard.lock.lock();
+            }
+            try{
+                for(Shard<T> shard : table){
+                    size.add(-shard.set.size());
+                    shard.retired = true;
+                }
+                Shard<T>[] empty = newTable(1);
+                empty[0] = new Shard<>(null, null, new SkipListSet<T>());
+                shards = empty;
+                thresholds(1);
+            }finally{
+                for(Shard<T> shard : table){
+                    shard.lock.unlock();
+                }
+            }
+        }
+    }
+
+
+    /*
+    *   Sizes that make a shard check if it should split or merge, they
+    *   follow the average so they are refreshed after every reshard and
+    *   every time a shard passes one of them
+    * */
+    private long thresholds(int count){
+        long average = size.sum() / count;
+        splitSize = (int) Math.min(Math.max(2 * average, MIN_SPLIT), Integer.MAX_VALUE);
+        mergeSize = count > 1 ? (int) Math.min(average / 4, Integer.MAX_VALUE) : 0;
+        return average;
+    }
+
+
+    /*
+    *   Splits shard at its median if it is still too big
+    * */
+    private void maybeSplit(Shard<T> shard){
+        synchronized (reshardLock){
+            Shard<T>[] table = shards;
+            long average = thresholds(table.length);
+            int index = indexOf(table, shard);
+            if(index < 0){
+                return; //somebody already split or merged it
+            }
+
+            Shard<T>[] next;
+            shard.lock.lock();
+            try{
+                int n = shard.set.size();
+                if(n < MIN_SPLIT || n <= 2 * average && table.length >= targetShards){
+                    return;
+                }
+                T middle = shard.set.get(n / 2);
+                SkipListSet<T> upper = shard.set.split(middle); //the retired shard is never read again
+
+                next = newTable(table.length + 1);
+                System.arraycopy(table, 0, next, 0, index);
+                next[index] = new Shard<>(shard.lower, middle, shard.set);
+                next[index + 1] = new Shard<>(middle, shard.upper, upper);
+                System.arraycopy(table, index + 1, next, index + 2, table.length - index - 1);
+                shard.retired = true;
+                shards = next;
+            }finally{
+                shard.lock.unlock();
+            }
+
+            if(next.length > targetShards){
+                merge(next, smallestPair(next, index)); //a skewed split, we keep the number of shards
+            }
+            thresholds(shards.length);
+        }
+    }
+
+
+    /*
+    *   Merges shard with its smaller neighbour if it is still too small
+    * */
+    private void maybeMerge(Shard<T> shard){
+        synchronized (reshardLock){
+            Shard<T>[] table = shards;
+            long average = thresholds(table.length);
+            int index = indexOf(table, shard);
+            if(index < 0 || table.length == 1 || shard.set.size() >= average / 4){
+                return; //sizes of other shards are only a guess without their lock
+            }
+            if(index == table.length - 1
+                    || index > 0 && table[index - 1].set.size() < table[index + 1].set.size()){
+                index--;
+            }
+            merge(table, index);
+            thresholds(shards.length);
+        }
+    }
+
+
+    /*
+    *   Replaces table[index] and table[index + 1] with one shard,
+    *   only called with reshardLock
+    * */
+    private void merge(Shard<T>[] table, int index){
+        Shard<T> left = table[index];
+        Shard<T> right = table[index + 1];
+        left.lock.lock();
+        right.lock.lock();
+        try{
+            left.set.concat(right.set);
+
+            Shard<T>[] next = newTable(table.length - 1);
+            System.arraycopy(table, 0, next, 0, index);
+            next[index] = new Shard<>(left.lower, right.upper, left.set);
+            System.arraycopy(table, index + 2, next, index + 1, table.length - index - 2);
+            left.retired = true;
+            right.retired = true;
+            shards = next;
+        }finally{
+            right.lock.unlock();
+            left.lock.unlock();
+        }
+    }
+
+    //Index of the first of the two neighbours with the fewest elements, other than the ones at skip
+    private static <T extends Comparable<T>> int smallestPair(Shard<T>[] table, int skip){
+        int best = skip == 0 ? 1 : 0;
+        long bestSize = Long.MAX_VALUE;
+        for(int i = 0; i + 1 < table.length; i++){
+            if(i == skip){
+                continue; //the two halves we just split
+            }
+            long pair = (long) table[i].set.size() + table[i + 1].set.size();
+            if(pair < bestSize){
+                best = i;
+                bestSize = pair;
+            }
+        }
+        return best;
+    }
+
+    private static <T extends Comparable<T>> int indexOf(Shard<T>[] table, Shard<T> shard){
+        for(int i = 0; i < table.length; i++){
+            if(table[i] == shard){
+                return i;
+            }
+        }
+        return -1;
+    }
+
+
+    /*
+    *   Smallest element greater than from (or equal if inclusive), null
+    *   if there is none. A null from is the start of the keys
+    *
+    *   If its shard has none we go on from the lower bound of the next one
+    * */
+    private T higherOrEqual(T from, boolean inclusive){
+        while (true){
+            Shard<T> shard = lockShard(from, false);
+            try{
+                T found;
+                if(from == null){
+                    found = shard.set.isEmpty() ? null : shard.set.first();
+                }else{
+                    found = inclusive ? shard.set.ceiling(from) : shard.set.higher(from);
+                }
+                if(found != null || shard.upper == null){
+                    return found;
+                }
+                from = shard.upper;
+                inclusive = true;
+            }finally{
+                shard.lock.unlock();
+            }
+        }
+    }
+
+
+    /*
+    *   Greatest element smaller than to (or equal if inclusive), null
+    *   if there is none. A null to is the end of the keys
+    * */
+    private T lowerOrEqual(T to, boolean inclusive){
+        while (true){
+            Shard<T> shard = lockShard(to, to == null || !inclusive);
+            try{
+                T found;
+                if(to == null){
+                    found = shard.set.isEmpty() ? null : shard.set.last();
+                }else{
+                    found = inclusive ? shard.set.floor(to) : shard.set.lower(to);
+                }
+                if(found != null || shard.lower == null){
+                    return found;
+                }
+                to = shard.lower;
+                inclusive = false;
+            }finally{
+                shard.lock.unlock();
+            }
+        }
+    }
+
+
+    /*
+    *   Same as the NavigableSet methods, null if there is no such element
+    * */
+    public T ceiling(T e) {
+        return higherOrEqual(Objects.requireNonNull(e), true);
+    }
+
+    public T higher(T e) {
+        return higherOrEqual(Objects.requireNonNull(e), false);
+    }
+
+    public T floor(T e) {
+        return lowerOrEqual(Objects.requireNonNull(e), true);
+    }
+
+    public T lower(T e) {
+        return lowerOrEqual(Objects.requireNonNull(e), false);
+    }
+
+
+    @Override
+    public T first() {
+        T first = higherOrEqual(null, true);
+        if(first == null){
+            throw new NoSuchElementException();
+        }
+        return first;
+    }
+
+    @Override
+    public T last() {
+        T last = lowerOrEqual(null, true);
+        if(last == null){
+            throw new NoSuchElementException();
+        }
+        return last;
+    }
+
+
+    @Override
+    public Comparator<? super T> comparator() {
+        return null; //natural order
+    }
+
+
+    @Override
+    public Iterator<T> iterator() {
+        return new ShardIterator(null, null);
+    }
+
+
+    /*
+    *   Views of a range of the keys, like on a TreeSet their bounds have to be inside ours
+    * */
+    @Override
+    public SortedSet<T> subSet(T fromElement, T toElement) {
+        return new Range(null, null).subSet(fromElement, toElement);
+    }
+
+    @Override
+    public SortedSet<T> headSet(T toElement) {
+        return new Range(null, null).headSet(toElement);
+    }
+
+    @Override
+    public SortedSet<T> tailSet(T fromElement) {
+        return new Range(null, null).tailSet(fromElement);
+    }
+
+
+    /*
+    *   Goes through the elements from lo (inclusive) to hi (exclusive),
+    *   null bounds are the ends of the keys
+    *
+    *   Every batch locks the shard of from, reads up to BATCH elements
+    *   of it and remembers where to go on: after the last one we read,
+    *   or at the upper bound of the shard once we read all of it
+    * */
+    private final class ShardIterator implements Iterator<T> {
+
+        private final T hi;
+        private final Object[] buffer = new Object[BATCH];
+        private int count, next;        //buffer has count elements, next is the one to return
+        private T from;                 //where the next batch starts, null at the start of the keys
+        private boolean inclusive = true;
+        private boolean done;
+        private T lastReturned;
+
+
+        ShardIterator(T lo, T hi){
+            this.from = lo;
+            this.hi = hi;
+        }
+
+
+        private void fill(){
+            count = 0;
+            next = 0;
+            Shard<T> shard = lockShard(from, false);
+            try{
+                Iterator<T> it = from == null ? shard.set.iterator() : shard.set.tailSet(from, inclusive).iterator();
+                while (count < BATCH && it.hasNext()){
+                    T t = it.next();
+                    if(hi != null && t.compareTo(hi) >= 0){
+                        done = true;
+                        return;
+                    }
+                    buffer[count++] = t;
+                }
+                if(count == BATCH && it.hasNext()){
+                    from = itemAt(count - 1);
+                    inclusive = false;
+                }else if(shard.upper == null || hi != null && shard.upper.compareTo(hi) >= 0){
+                    done = true;
+                }else{
+                    from = shard.upper;
+                    inclusive = true;
+                }
+            }finally{
+                shard.lock.unlock();
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private T itemAt(int index){
+            return (T) buffer[index];
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next == count && !done){
+                fill();
+            }
+            return next < count;
+        }
+
+        @Override
+        public T next() {
+            if(!hasNext()){
+                throw new NoSuchElementException();
+            }
+            lastReturned = itemAt(next++);
+            return lastReturned;
+        }
+
+        @Override
+        public void remove() {
+            if(lastReturned == null){
+                throw new IllegalStateException();
+            }
+            ShardedSkipListSet.this.remove(lastReturned);
+            lastReturned = null;
+        }
+    }
+
+
+    /*
+    *   Elements from lo (inclusive) to hi (exclusive) of the set,
+    *   null if there is no bound on that side
+    *
+    *   Writes go to the set, size walks the range
+    * */
+    private final class Range extends AbstractSet<T> implements SortedSet<T> {
+
+        private final T lo, hi;
+
+
+        Range(T lo, T hi){
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+
+        private boolean inRange(T t){
+            return (lo == null || t.compareTo(lo) >= 0) && (hi == null || t.compareTo(hi) < 0);
+        }
+
+        private void checkInRange(T t){
+            Objects.requireNonNull(t);
+            if(lo != null && t.compareTo(lo) < 0 || hi != null && t.compareTo(hi) > 0){
+                throw new IllegalArgumentException("element out of range");
+            }
+        }
+
+
+        @Override
+        public int size() {
+            int size = 0;
+            for(Iterator<T> it = iterator(); it.hasNext(); it.next()){
+                size++;
+            }
+            return size;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return !iterator().hasNext();
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean contains(Object o) {
+            T t = (T) Objects.requireNonNull(o);
+            return inRange(t) && ShardedSkipListSet.this.contains(t);
+        }
+
+        @Override
+        public boolean add(T t) {
+            if(!inRange(Objects.requireNonNull(t))){
+                throw new IllegalArgumentException("element out of range");
+            }
+            return ShardedSkipListSet.this.add(t);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean remove(Object o) {
+            T t = (T) Objects.requireNonNull(o);
+            return inRange(t) && ShardedSkipListSet.this.remove(t);
+        }
+
+
+        @Override
+        public T first() {
+            T first = lo == null ? higherOrEqual(null, true) : ceiling(lo);
+            if(first == null || !inRange(first)){
+                throw new NoSuchElementException();
+            }
+            return first;
+        }
+
+        @Override
+        public T last() {
+            T last = hi == null ? lowerOrEqual(null, true) : lower(hi);
+            if(last == null || !inRange(last)){
+                throw new NoSuchElementException();
+            }
+            return last;
+        }
+
+
+        @Override
+        public SortedSet<T> subSet(T fromElement, T toElement) {
+            checkInRange(fromElement);
+            checkInRange(toElement);
+            if(fromElement.compareTo(toElement) > 0){
+                throw new IllegalArgumentException("fromElement > toElement");
+            }
+            return new Range(fromElement, toElement);
+        }
+
+        @Override
+        public SortedSet<T> headSet(T toElement) {
+            checkInRange(toElement);
+            return new Range(lo, toElement);
+        }
+
+        @Override
+        public SortedSet<T> tailSet(T fromElement) {
+            checkInRange(fromElement);
+            return new Range(fromElement, hi);
+        }
+
+
+        @Override
+        public Comparator<? super T> comparator() {
+            return null;
+        }
+
+        @Override
+        public Iterator<T> iterator() {
+            return new ShardIterator(lo, hi);
+        }
+    }
+}
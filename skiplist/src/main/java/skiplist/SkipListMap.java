@@ -0,0 +1,627 @@
+package skiplist;
+
+import java.util.*;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+
+/*
+*   This Object represent a sorted map on top of the SkipListSet engine
+*
+*   The keys live on a SkipListSet whose items also carry a value, so
+*   get, put, putIfAbsent, computeIfAbsent and merge are one search of
+*   that list each: the search keeps the predecessors of the key, and a
+*   new item is linked right after them, or the one found is unlinked
+*
+*   A map with bounds (subMap, headMap, tailMap, descendingMap) is the
+*   same list seen through one of its sub sets, so every view is live
+*
+* */
+public class SkipListMap<K extends Comparable<K>, V> extends AbstractMap<K, V> implements NavigableMap<K, V> {
+
+
+    private final KeyList<K> keys;                      //The engine, every view of this map shares it
+    private final SkipListSet<K>.SkipListSubSet range;  //Bounds and order of this map
+    private final boolean bounded;                      //false for the whole map, nothing to check
+    private EntrySet entrySet;
+
+
+    /*
+    *   Constructor that returns an empty map
+    * */
+    public SkipListMap(){
+        this(LevelGenerator.geometric());
+    }
+
+
+    /*
+    *   Constructor that returns an empty map whose heights
+    *   come from levelGenerator
+    *
+    *   @param: LevelGenerator levelGenerator
+    * */
+    public SkipListMap(LevelGenerator levelGenerator){
+        this.keys = new KeyList<>(levelGenerator);
+        this.range = keys.wholeRange();
+        this.bounded = false;
+    }
+
+
+    /*
+    *   Constructor that returns a map with the same mappings as m
+    *
+    *   @param: Map<? extends K, ? extends V> m
+    * */
+    public SkipListMap(Map<? extends K, ? extends V> m){
+        this();
+        putAll(m);
+    }
+
+
+    //A view of keys
+    private SkipListMap(KeyList<K> keys, NavigableSet<K> range){
+        this.keys = keys;
+        this.range = (SkipListSet<K>.SkipListSubSet) range;
+        this.bounded = true;
+    }
+
+
+    /*
+    *   Items of the map, a key with its value
+    *
+    *   They are the entries of entrySet(), so setValue writes to the map
+    * */
+    static final class MapItem<K extends Comparable<K>, V> extends SkipListSet.SkipListSetItem<K> implements Map.Entry<K, V> {
+        V value;
+
+        MapItem(K key, V value, int height){
+            super(key, height);
+            this.value = value;
+        }
+
+        @Override
+        public K getKey() {
+            return payload;
+        }
+
+        @Override
+        public V getValue() {
+            return value;
+        }
+
+        @Override
+        public V setValue(V value) {
+            V old = this.value;
+            this.value = value;
+            return old;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if(!(o instanceof Map.Entry)){
+                return false;
+            }
+            Map.Entry<?, ?> e = (Map.Entry<?, ?>) o;
+            return payload.equals(e.getKey()) && Objects.equals(value, e.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return payload.hashCode() ^ Objects.hashCode(value);
+        }
+
+        @Override
+        public String toString() {
+            return payload + "=" + value;
+        }
+    }
+
+
+    /*
+    *   The SkipListSet behind the map
+    *
+    *   Keys only get in through the map, with their value,
+    *   so its keySet views can remove but not add
+    * */
+    static final class KeyList<K extends Comparable<K>> extends SkipListSet<K> {
+
+        KeyList(LevelGenerator levelGenerator){
+            super(levelGenerator);
+        }
+
+        @Override
+        public boolean add(K k) {
+            throw new UnsupportedOperationException("keys are added through the map");
+        }
+
+        @Override
+        public boolean addAll(Collection<? extends K> c) {
+            throw new UnsupportedOperationException("keys are added through the map");
+        }
+    }
+
+
+    @SuppressWarnings("unchecked")
+    private static <K extends Comparable<K>, V> MapItem<K, V> mapItem(SkipListSet.SkipListSetItem<K> item){
+        return (MapItem<K, V>) item;
+    }
+
+
+    //Entry that doesn't change with the map, for firstEntry, ceilingEntry...
+    private static <K extends Comparable<K>, V> Map.Entry<K, V> snapshot(SkipListSet.SkipListSetItem<K> item){
+        if(item == null){
+            return null;
+        }
+        MapItem<K, V> temp = mapItem(item);
+        return new AbstractMap.SimpleImmutableEntry<>(temp.payload, temp.value);
+    }
+
+    private static <K extends Comparable<K>> K keyOf(SkipListSet.SkipListSetItem<K> item){
+        return item == null ? null : item.payload;
+    }
+
+
+    //Views only take keys inside their bounds
+    private void checkRange(K key){
+        Objects.requireNonNull(key);
+        if(bounded && !range.inRange(key)){
+            throw new IllegalArgumentException("key out of range");
+        }
+    }
+
+    //A view has no keys outside its bounds, there they can only be absent
+    private boolean outOfRange(K key){
+        return bounded && !range.inRange(Objects.requireNonNull(key));
+    }
+
+    @SuppressWarnings("unchecked")
+    private MapItem<K, V> find(Object key){
+        K k = (K) Objects.requireNonNull(key);
+        if(bounded && !range.inRange(k)){
+            return null;
+        }
+        return mapItem(keys.findItem(k));
+    }
+
+
+    @Override
+    public int size() {
+        return bounded ? range.size() : keys.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return bounded ? range.isEmpty() : keys.isEmpty();
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return find(key) != null;
+    }
+
+
+    /*
+    *   Value of key, or null if it is not here
+    * */
+    @Override
+    public V get(Object key) {
+        MapItem<K, V> item = find(key);
+        return item == null ? null : item.value;
+    }
+
+
+    /*
+    *   Maps key to value, and returns the value it had before
+    *
+    *   If key is not here the search already stopped where it goes
+    * */
+    @Override
+    public V put(K key, V value) {
+        checkRange(key);
+        MapItem<K, V> item = mapItem(keys.search(key));
+        if(item != null){
+            return item.setValue(value);
+        }
+        keys.linkNew(new MapItem<>(key, value, keys.setHeight()));
+        return null;
+    }
+
+
+    @Override
+    public V putIfAbsent(K key, V value) {
+        checkRange(key);
+        MapItem<K, V> item = mapItem(keys.search(key));
+        if(item != null){
+            return item.value != null ? item.value : item.setValue(value);
+        }
+        keys.linkNew(new MapItem<>(key, value, keys.setHeight()));
+        return null;
+    }
+
+
+    /*
+    *   Value of key, if it has none it gets mappingFunction(key)
+    *
+    *   mappingFunction can't change the map, so after calling it
+    *   the new item is linked where the search stopped
+    *
+    *   On a view a key out of its bounds is absent, it is only an error
+    *   if mappingFunction gives it a value
+    * */
+    @Override
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+        Objects.requireNonNull(mappingFunction);
+        if(outOfRange(key)){
+            if(mappingFunction.apply(key) != null){
+                throw new IllegalArgumentException("key out of range");
+            }
+            return null;
+        }
+        MapItem<K, V> item = mapItem(keys.search(key));
+        if(item != null && item.value != null){
+            return item.value;
+        }
+
+        int expectedModCount = keys.modCount;
+        V value = mappingFunction.apply(key);
+        item = mapItem(keys.research(key, expectedModCount));
+        if(value == null){
+            return null;
+        }
+
+        if(item != null){
+            item.value = value;
+        }else{
+            keys.linkNew(new MapItem<>(key, value, keys.setHeight()));
+        }
+        return value;
+    }
+
+
+    /*
+    *   If key has a value it gets remappingFunction(old value), a null result removes it
+    *   On a view a key out of its bounds never has one
+    * */
+    @Override
+    public V computeIfPresent(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        Objects.requireNonNull(remappingFunction);
+        if(outOfRange(key)){
+            return null;
+        }
+        MapItem<K, V> item = mapItem(keys.search(key));
+        if(item == null || item.value == null){
+            return null;
+        }
+        int expectedModCount = keys.modCount;
+        return remap(key, remappingFunction.apply(key, item.value), expectedModCount);
+    }
+
+
+    /*
+    *   key gets remappingFunction(key, old value or null), a null result removes it
+    *   On a view a key out of its bounds is absent, like in computeIfAbsent
+    * */
+    @Override
+    public V compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        Objects.requireNonNull(remappingFunction);
+        if(outOfRange(key)){
+            if(remappingFunction.apply(key, null) != null){
+                throw new IllegalArgumentException("key out of range");
+            }
+            return null;
+        }
+        MapItem<K, V> item = mapItem(keys.search(key));
+        int expectedModCount = keys.modCount;
+        V value = remappingFunction.apply(key, item == null ? null : item.value);
+
+        if(item != null){
+            return remap(key, value, expectedModCount);
+        }
+        keys.research(key, expectedModCount);
+        if(value != null){
+            keys.linkNew(new MapItem<>(key, value, keys.setHeight()));
+        }
+        return value;
+    }
+
+
+    /*
+    *   key gets value if it has none, otherwise remappingFunction(old value, value),
+    *   a null result removes it
+    *
+    *   value is never null, so on a view a key out of its bounds would
+    *   always get a mapping, that is an error
+    * */
+    @Override
+    public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+        Objects.requireNonNull(value);
+        Objects.requireNonNull(remappingFunction);
+        checkRange(key);
+        MapItem<K, V> item = mapItem(keys.search(key));
+        if(item == null){
+            keys.linkNew(new MapItem<>(key, value, keys.setHeight()));
+            return value;
+        }
+        if(item.value == null){
+            item.value = value;
+            return value;
+        }
+        int expectedModCount = keys.modCount;
+        return remap(key, remappingFunction.apply(item.value, value), expectedModCount);
+    }
+
+
+    /*
+    *   Gives the item of key its new value, or takes it out when it is null
+    *   Unless the remapping function searched for something else,
+    *   the search that found it is still good to unlink it
+    * */
+    private V remap(K key, V value, int expectedModCount){
+        MapItem<K, V> item = mapItem(keys.research(key, expectedModCount));
+        if(value == null){
+            keys.unlinkFound(item);
+        }else{
+            item.value = value;
+        }
+        return value;
+    }
+
+
+    /*
+    *   Removes key, and returns the value it had
+    * */
+    @Override
+    @SuppressWarnings("unchecked")
+    public V remove(Object key) {
+        K k = (K) Objects.requireNonNull(key);
+        if(bounded && !range.inRange(k)){
+            return null;
+        }
+        MapItem<K, V> item = mapItem(keys.removeItem(k));
+        return item == null ? null : item.value;
+    }
+
+
+    @Override
+    public void clear() {
+        if(bounded){
+            range.clear();
+        }else{
+            keys.clear();
+        }
+    }
+
+
+    //First and last items in the order of this map
+    private SkipListSet.SkipListSetItem<K> firstItem(){
+        return range.descending ? range.highestItem() : range.lowestItem();
+    }
+
+    private SkipListSet.SkipListSetItem<K> lastItem(){
+        return range.descending ? range.lowestItem() : range.highestItem();
+    }
+
+
+    @Override
+    public Map.Entry<K, V> lowerEntry(K key) {
+        return snapshot(range.descending ? range.higherIn(key) : range.lowerIn(key));
+    }
+
+    @Override
+    public K lowerKey(K key) {
+        return keyOf(range.descending ? range.higherIn(key) : range.lowerIn(key));
+    }
+
+    @Override
+    public Map.Entry<K, V> floorEntry(K key) {
+        return snapshot(range.descending ? range.ceilingIn(key) : range.floorIn(key));
+    }
+
+    @Override
+    public K floorKey(K key) {
+        return keyOf(range.descending ? range.ceilingIn(key) : range.floorIn(key));
+    }
+
+    @Override
+    public Map.Entry<K, V> ceilingEntry(K key) {
+        return snapshot(range.descending ? range.floorIn(key) : range.ceilingIn(key));
+    }
+
+    @Override
+    public K ceilingKey(K key) {
+        return keyOf(range.descending ? range.floorIn(key) : range.ceilingIn(key));
+    }
+
+    @Override
+    public Map.Entry<K, V> higherEntry(K key) {
+        return snapshot(range.descending ? range.lowerIn(key) : range.higherIn(key));
+    }
+
+    @Override
+    public K higherKey(K key) {
+        return keyOf(range.descending ? range.lowerIn(key) : range.higherIn(key));
+    }
+
+    @Override
+    public Map.Entry<K, V> firstEntry() {
+        return snapshot(firstItem());
+    }
+
+    @Override
+    public Map.Entry<K, V> lastEntry() {
+        return snapshot(lastItem());
+    }
+
+    @Override
+    public K firstKey() {
+        SkipListSet.SkipListSetItem<K> item = firstItem();
+        if(item == null){
+            throw new NoSuchElementException();
+        }
+        return item.payload;
+    }
+
+    @Override
+    public K lastKey() {
+        SkipListSet.SkipListSetItem<K> item = lastItem();
+        if(item == null){
+            throw new NoSuchElementException();
+        }
+        return item.payload;
+    }
+
+    @Override
+    public Map.Entry<K, V> pollFirstEntry() {
+        SkipListSet.SkipListSetItem<K> item = firstItem();
+        if(item != null){
+            keys.removeItem(item.payload);
+        }
+        return snapshot(item);
+    }
+
+    @Override
+    public Map.Entry<K, V> pollLastEntry() {
+        SkipListSet.SkipListSetItem<K> item = lastItem();
+        if(item != null){
+            keys.removeItem(item.payload);
+        }
+        return snapshot(item);
+    }
+
+
+    /*
+    *   Views, they are the same list through a sub set of its keys
+    *   On a descending map from is the greater key
+    * */
+    @Override
+    public NavigableMap<K, V> descendingMap() {
+        return new SkipListMap<>(keys, range.descendingSet());
+    }
+
+    @Override
+    public NavigableMap<K, V> subMap(K fromKey, boolean fromInclusive, K toKey, boolean toInclusive) {
+        return new SkipListMap<>(keys, range.subSet(fromKey, fromInclusive, toKey, toInclusive));
+    }
+
+    @Override
+    public NavigableMap<K, V> headMap(K toKey, boolean inclusive) {
+        return new SkipListMap<>(keys, range.headSet(toKey, inclusive));
+    }
+
+    @Override
+    public NavigableMap<K, V> tailMap(K fromKey, boolean inclusive) {
+        return new SkipListMap<>(keys, range.tailSet(fromKey, inclusive));
+    }
+
+    @Override
+    public SortedMap<K, V> subMap(K fromKey, K toKey) {
+        return subMap(fromKey, true, toKey, false);
+    }
+
+    @Override
+    public SortedMap<K, V> headMap(K toKey) {
+        return headMap(toKey, false);
+    }
+
+    @Override
+    public SortedMap<K, V> tailMap(K fromKey) {
+        return tailMap(fromKey, true);
+    }
+
+
+    /*
+    *   The keys, in the order of this map
+    *   Removing from them removes from the map, adding is not supported
+    * */
+    @Override
+    public NavigableSet<K> navigableKeySet() {
+        return range;
+    }
+
+    @Override
+    public NavigableSet<K> keySet() {
+        return range;
+    }
+
+    @Override
+    public NavigableSet<K> descendingKeySet() {
+        return range.descendingSet();
+    }
+
+    @Override
+    public Comparator<? super K> comparator() {
+        return range.comparator();
+    }
+
+
+    @Override
+    public Set<Map.Entry<K, V>> entrySet() {
+        if(entrySet == null){
+            entrySet = new EntrySet();
+        }
+        return entrySet;
+    }
+
+
+    /*
+    *   The items themselves, in the order of this map
+    * */
+    private final class EntrySet extends AbstractSet<Map.Entry<K, V>> {
+
+        @Override
+        public Iterator<Map.Entry<K, V>> iterator() {
+            SkipListSet<K>.SkipListSetIterator items = range.itemIterator();
+
+            return new Iterator<Map.Entry<K, V>>() {
+                @Override
+                public boolean hasNext() {
+                    return items.hasNext();
+                }
+
+                @Override
+                public Map.Entry<K, V> next() {
+                    return mapItem(items.advance());
+                }
+
+                @Override
+                public void remove() {
+                    items.remove();
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return SkipListMap.this.size();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if(!(o instanceof Map.Entry)){
+                return false;
+            }
+            Map.Entry<?, ?> e = (Map.Entry<?, ?>) o;
+            MapItem<K, V> item;
+            try{
+                item = find(e.getKey());
+            }catch (ClassCastException | NullPointerException ex){
+                return false; //not even a key we can compare
+            }
+            return item != null && Objects.equals(item.value, e.getValue());
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            if(!contains(o)){
+                return false;
+            }
+            SkipListMap.this.remove(((Map.Entry<?, ?>) o).getKey());
+            return true;
+        }
+
+        @Override
+        public void clear() {
+            SkipListMap.this.clear();
+        }
+    }
+}
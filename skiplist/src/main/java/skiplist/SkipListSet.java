@@ -0,0 +1,2893 @@
+/*
+*   Diego Cruces
+*   Programming Project
+*   COP3503C
+*
+*   References:
+*       - Java Documentation
+*       - Dr. Matthew Gerber
+*
+* */
+
+package skiplist;
+
+
+
+
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Array;
+import java.util.*;
+
+
+/*
+*   This Object represent a Skiplist that has properties of a sorted set
+*   No duplicate element, and all elements are inserted from smallest
+*   to greatest
+*
+* */
+public class SkipListSet <T extends Comparable<T>> implements NavigableSet<T> {
+
+
+    static final int MAX_HEIGHT = 32;  //Default limit for the height of the towers
+
+    private int size = 0;           //keeps track of how many elements are on the SkipList
+    private int currentHeight = 1;  //Keeps track of the SkipList Height, the levels of the heads in use
+    private final int maxHeight;    //No tower can be taller than this, the heads are always this tall
+    private final LevelGenerator levelGenerator;    //Decides the height of every new element
+    private final SkipListSetItem<T>[] update;      //Reused by add and remove so they don't allocate
+    private final int[] updateRank;
+    private T searched;                             //What update was filled for by search, null if it is not good anymore
+    private boolean useFinger = false;              //Searches start from the last one, see setFingerSearch
+    private T fingerKey;                            //Last key we searched for, update has its predecessors
+    private int fingerModCount;                     //update is only a good finger while modCount is this
+    int modCount = 0;               //Counts every change of structure, so iterators can notice them
+    private SearchCounters counters;    //null unless statistics are enabled, see setStatisticsEnabled
+    private long version = 0;           //Changes are made at this version, every snapshot takes one, see snapshot()
+    private ArrayDeque<WeakReference<SkipListSnapshot.Version<T>>> snapshots;  //null while no snapshot is open
+    private ArrayDeque<OldLink<T>> oldLinks;    //Bottom links kept for the snapshots, oldest first
+    SkipListSetItem<T> heads;       //This is always the starting point, aka the Head
+    SkipListSetItem<T> tail;        //Last element on the bottom level, the heads if the list is empty
+
+
+    /*
+    *   Constructor that returns an empty SkipList,
+    *
+    * */
+    public SkipListSet(){
+        this(LevelGenerator.geometric(), MAX_HEIGHT);
+    }
+
+
+    /*
+    *   Constructor that returns an empty SkipList whose heights
+    *   come from levelGenerator
+    *
+    *   @param: LevelGenerator levelGenerator
+    * */
+    public SkipListSet(LevelGenerator levelGenerator){
+        this(levelGenerator, MAX_HEIGHT);
+    }
+
+
+    /*
+    *   Constructor that returns an empty SkipList whose heights
+    *   come from levelGenerator, and are never more than maxHeight
+    *
+    *   @param: LevelGenerator levelGenerator
+    *   @param: int maxHeight
+    * */
+    public SkipListSet(LevelGenerator levelGenerator, int maxHeight){
+        if(maxHeight < 1){
+            throw new IllegalArgumentException("maxHeight must be at least 1: " + maxHeight);
+        }
+        this.levelGenerator = Objects.requireNonNull(levelGenerator);
+        this.maxHeight = maxHeight;
+        this.update = newUpdate(maxHeight);
+        this.updateRank = new int[maxHeight];
+        setHeads();
+    }
+
+
+    /*
+    *   Constructor that returns a populated SkipList Set
+    *   @param: A generic Collection
+    *
+    * */
+    public SkipListSet(Collection<? extends T> c){
+        this();
+        bulkLoad(c);
+    }
+
+
+    /*
+    *   We set our Heads, an item with no payload and maxHeight
+    *   levels, only the first currentHeight of them are in use
+    *
+    * */
+    private void setHeads(){
+        heads = newItem(null, maxHeight);
+        heads.width[0] = 1; //An empty list only has the end
+        tail = heads;
+        currentHeight = 1;
+    }
+
+
+    /*
+    *   This method is used to set the Height of a new Element
+    *   By default all element have height 1
+    *   The level generator decides how many more levels it gets,
+    *   no node can have Height greater than maxHeight
+    *
+    *   @return     int height
+    *
+    * */
+    int setHeight(){
+        return levelGenerator.nextHeight(maxHeight);
+    }
+
+
+
+    /*
+    *   We drop the levels of the heads that no element uses anymore,
+    *   so searches don't start on empty levels
+    *
+    *   The heads are never reallocated, they are already maxHeight tall
+    *
+    * */
+    public void setCurrentHeight(){
+        while (currentHeight > 1 && heads.right[currentHeight - 1] == null){ //Empty level on top
+            currentHeight--;
+        }
+    }
+
+
+    /*
+    *   Starts using the levels of the heads up to height,
+    *   the list has count elements right now
+    *
+    * */
+    private void growHeads(int height, int count){
+        if(height > currentHeight){
+            //New levels are empty, they span the whole list
+            Arrays.fill(heads.width, currentHeight, height, count + 1);
+            currentHeight = height;
+        }
+    }
+
+
+    /*
+    *   Search for o from the top of the heads
+    *
+    *   On every level we go right while the next element is less than o,
+    *   and we save where we stopped on update, so update[i] is the
+    *   predecessor of o on level i
+    *
+    *   If rank is given, rank[i] is the position of update[i],
+    *   counting the heads as position 0
+    *
+    *   @return     the predecessor of o on the bottom level
+    *
+    * */
+    private SkipListSetItem<T> findPredecessors(T o, SkipListSetItem<T>[] update, int[] rank){
+        SkipListSetItem<T> temp = heads;
+        int position = 0;
+        int moves = 0;  //only read when statistics are enabled
+        int stops = 0;
+
+        for(int level = currentHeight - 1; level >= 0; level--){
+            while (temp.right[level] != null && temp.right[level].payload.compareTo(o) < 0){
+                position += temp.width[level];
+                temp = temp.right[level];
+                moves++;
+            }
+            if(counters != null && temp.right[level] != null){
+                stops++; //we compared and it was not less
+            }
+            if(update != null){
+                update[level] = temp;
+            }
+            if(rank != null){
+                rank[level] = position;
+            }
+        }
+
+        if(counters != null){
+            counters.searched(moves + currentHeight, moves + stops);
+        }
+        return temp;
+    }
+
+
+    /*
+    *   Finger search, same as findPredecessors but starting from finger,
+    *   the predecessors of the last key we searched for on every level
+    *   c is how o compares to that key
+    *
+    *   If o is after it we climb while the next one on the finger is still
+    *   less than o, if o is before it we climb while the finger is not less
+    *   than o. Above the level we stop at the finger is already right for o,
+    *   so we only go down from there. A key d positions away from the last
+    *   one costs O(log d) instead of O(log n)
+    *
+    *   @return     the predecessor of o on the bottom level
+    * */
+    private SkipListSetItem<T> fingerSearch(T o, SkipListSetItem<T>[] finger, int[] rank, int c){
+        int top = 0;
+        if(c > 0){
+            while (top < currentHeight && finger[top].right[top] != null
+                    && finger[top].right[top].payload.compareTo(o) < 0){
+                top++;
+            }
+        }else if(c < 0){
+            while (top < currentHeight && finger[top] != heads && finger[top].payload.compareTo(o) >= 0){
+                top++;
+            }
+        }
+        if(top == currentHeight){ //Too far, it is faster from the heads
+            return findPredecessors(o, finger, rank);
+        }
+
+        SkipListSetItem<T> temp = finger[top];
+        int position = rank[top];
+        int moves = 0;  //only read when statistics are enabled
+        int stops = 0;
+
+        for(int level = top; level >= 0; level--){
+            while (temp.right[level] != null && temp.right[level].payload.compareTo(o) < 0){
+                position += temp.width[level];
+                temp = temp.right[level];
+                moves++;
+            }
+            if(counters != null && temp.right[level] != null){
+                stops++;
+            }
+            finger[level] = temp;
+            rank[level] = position;
+        }
+
+        if(counters != null){
+            counters.searched(moves + 2 * top + 1, moves + stops + top + 1); //the climb looked at one item per level
+        }
+        return temp;
+    }
+
+
+    /*
+    *   Every search that is going to change the list goes through here,
+    *   it leaves the predecessors of o on update and their positions on updateRank
+    *
+    *   With finger search on it starts from the last search,
+    *   unless the list changed some other way since
+    *
+    *   @return     the predecessor of o on the bottom level
+    * */
+    private SkipListSetItem<T> locate(T o){
+        SkipListSetItem<T> temp;
+        if(useFinger && fingerKey != null && fingerModCount == modCount){
+            temp = fingerSearch(o, update, updateRank, o.compareTo(fingerKey));
+        }else{
+            temp = findPredecessors(o, update, updateRank);
+        }
+        searched = null;
+        fingerKey = o;
+        fingerModCount = modCount;
+        return temp;
+    }
+
+
+    /*
+    *   Search for the methods that only read, the same as findPredecessors
+    *   but it keeps nothing on the list, so threads that only read can
+    *   share it. Only the statistics counters are written, if they are on
+    *
+    *   @return     the predecessor of o on the bottom level
+    * */
+    private SkipListSetItem<T> readPredecessor(T o){
+        return findPredecessors(o, null, null);
+    }
+
+
+    /*
+    *   Turns finger search on or off
+    *
+    *   When most changes land next to the one before (ascending
+    *   timestamps, expiring the oldest) it saves most of the search.
+    *   On random keys the climb is wasted, so it is off by default
+    *
+    *   Only add and remove use it, the finger is one for the whole list
+    *   and reads have to leave the list alone. Reads that move along the
+    *   list can use a Cursor, it has a finger of its own
+    * */
+    public void setFingerSearch(boolean enabled){
+        useFinger = enabled;
+    }
+
+    public boolean isFingerSearch(){
+        return useFinger;
+    }
+
+
+    /*
+    *   Links item, which is at position rank, after the last item
+    *   we saw on each of its levels, and sets the width of those links
+    *
+    * */
+    private void linkAfter(SkipListSetItem<T>[] last, int[] lastRank, SkipListSetItem<T> item, int rank){
+        if(last[0].right[0] != item){
+            recordNext(last[0]);
+        }
+        for(int level = 0; level < item.right.length; level++){
+            last[level].right[level] = item;
+            last[level].width[level] = rank - lastRank[level];
+            last[level] = item;
+            lastRank[level] = rank;
+        }
+    }
+
+
+    /*
+    *   Closes every level after linkAfter is done,
+    *   the last link of a level spans until the end of the list
+    *
+    * */
+    private void closeLevels(SkipListSetItem<T>[] last, int[] lastRank){
+        if(last[0].right[0] != null){
+            recordNext(last[0]);
+        }
+        for(int level = 0; level < last.length; level++){
+            last[level].right[level] = null;
+            last[level].width[level] = size + 1 - lastRank[level];
+        }
+    }
+
+
+    @SuppressWarnings("unchecked")
+    private SkipListSetItem<T>[] newUpdate(int length){
+        return (SkipListSetItem<T>[]) new SkipListSetItem[length];
+    }
+
+
+    /*
+    *   Every item of the list, heads included, is made here,
+    *   so a subclass can keep more on its items
+    * */
+    SkipListSetItem<T> newItem(T payload, int height){
+        return new SkipListSetItem<>(payload, height);
+    }
+
+
+    /*
+    *   Called after the link of item on level changed, or the elements it
+    *   jumps over did. The levels of a change are always done bottom up,
+    *   so when level is called the ones below it are already done
+    *
+    *   Nothing to do here, see AggregateSkipListSet
+    * */
+    void linkChanged(SkipListSetItem<T> item, int level){
+    }
+
+    //Called after all the links were built again at once
+    void linksRebuilt(){
+    }
+
+    //How many levels of the heads are in use, no item is taller
+    int levelsInUse(){
+        return currentHeight;
+    }
+
+
+
+    /*
+    *   Loads a whole collection into an empty list in one pass
+    *
+    *   @param  Collection<? extends T> c
+    * */
+    private void bulkLoad(Collection<? extends T> c){
+        Object[] elements = sortedDistinct(c);
+        buildFromSorted(elements, elements.length);
+    }
+
+
+    /*
+    *   Returns the elements of c sorted and without duplicates
+    *
+    *   Sorted sets that use the natural order already are, anything else
+    *   is checked, sorted in parallel only when it is not sorted yet,
+    *   and its duplicates removed
+    *
+    *   @param  Collection<?> c
+    *   @return Object[]
+    * */
+    private Object[] sortedDistinct(Collection<?> c){
+        Object[] elements = c.toArray();
+        if(isNaturalSorted(c)){
+            return elements;
+        }
+
+        Comparator<Object> natural = natural();
+        if(!isSorted(elements, natural)){
+            Arrays.parallelSort(elements, natural);
+        }
+
+        //Drop duplicates, they are next to each other now
+        int unique = 0;
+        for(int i = 0; i < elements.length; i++){
+            if(unique == 0 || natural.compare(elements[unique - 1], elements[i]) != 0){
+                elements[unique++] = elements[i];
+            }
+        }
+        return unique == elements.length ? elements : Arrays.copyOf(elements, unique);
+    }
+
+
+    //Sorted sets in natural order come in the order of our list
+    private static boolean isNaturalSorted(Collection<?> c){
+        return c instanceof SortedSet && ((SortedSet<?>) c).comparator() == null;
+    }
+
+
+    /*
+    *   Natural order of our elements, for arrays of Object
+    * */
+    @SuppressWarnings("unchecked")
+    private Comparator<Object> natural(){
+        return (x, y) -> ((T) x).compareTo((T) y);
+    }
+
+
+    /*
+    *   Tells whether the array is already in order
+    * */
+    private static boolean isSorted(Object[] elements, Comparator<Object> natural){
+        for(int i = 1; i < elements.length; i++){
+            if(natural.compare(elements[i - 1], elements[i]) > 0){
+                return false;
+            }
+        }
+        return true;
+    }
+
+
+    /*
+    *   Tells whether m elements are few enough that searching for each
+    *   one is cheaper than walking the whole list once
+    * */
+    private boolean fewComparedTo(int m){
+        return (long) m * (log2(size) + 1) < size;
+    }
+
+
+    /*
+    *   Answers "is x in sorted?" for questions asked in ascending order
+    *
+    *   It remembers where the last answer was, so walking our whole
+    *   list against the array only moves forward on both, O(n + m)
+    * */
+    private java.util.function.Predicate<T> sortedMembership(Object[] sorted){
+        Comparator<Object> natural = natural();
+        int[] position = {0};
+
+        return x -> {
+            while (position[0] < sorted.length && natural.compare(sorted[position[0]], x) < 0){
+                position[0]++;
+            }
+            return position[0] < sorted.length && natural.compare(sorted[position[0]], x) == 0;
+        };
+    }
+
+
+    /*
+    *   Builds all the levels from the first n sorted, distinct elements
+    *
+    *   Every element gets its height as usual and is linked after the
+    *   last element we saw on each of its levels, so no searching is needed
+    *
+    * */
+    @SuppressWarnings("unchecked")
+    private void buildFromSorted(Object[] sorted, int n){
+        setHeads();
+        size = n;
+        modCount++;
+
+        SkipListSetItem<T>[] last = newUpdate(maxHeight);
+        int[] lastRank = new int[last.length];
+        Arrays.fill(last, heads);
+
+        for(int i = 0; i < n; i++){
+            SkipListSetItem<T> newItem = newItem((T) sorted[i], setHeight());
+            newItem.left = last[0];
+            linkAfter(last, lastRank, newItem, i + 1);
+        }
+        closeLevels(last, lastRank);
+        tail = last[0];
+
+        currentHeight = maxHeight;
+        setCurrentHeight(); //Drop the levels nobody reached
+        linksRebuilt();
+    }
+
+
+    /*
+    *   We set the hashCode for our whole SkipList set
+    *   We do so by adding the hashCode of all our elements
+    *
+    *
+    *   @return     int hashCode
+    * */
+    public int hashCode(){
+
+        int hasCode = 0;
+        SkipListSetItem<T> temp = heads.right[0]; //First Element
+
+        while (temp != null){ //if there are elements
+            hasCode += temp.payload.hashCode(); //Add elements hash
+            temp = temp.right[0]; //Next one
+        }
+
+        return hasCode; //return our hash
+    }
+
+    /*
+    *   Determine if 2 SkipLists Sets are equal!
+    *
+    *   @return     boolean equals
+    *
+    * */
+    public boolean equals(SkipListSet<?> set){
+        return equals((Object) set);
+    }
+
+
+    /*
+    *   Determine if this list and any other Set are equal
+    *
+    *   Sorted sets in natural order are compared side by side in one walk,
+    *   any other set goes through containsAll
+    *
+    *   @return     boolean equals
+    * */
+    @Override
+    public boolean equals(Object o){
+        if(o == this){
+            return true;
+        }
+        if(!(o instanceof Set)){
+            return false;
+        }
+        Set<?> set = (Set<?>) o;
+
+        if(set.size() != size){ //If the 2 sets are not even the same size we don't even bother!
+            return false;
+        }
+
+        //Now lets compare elements
+        //We can assume they are in order since we are dealing with Sorted sets!
+        if(set instanceof SortedSet && ((SortedSet<?>) set).comparator() == null){
+            SkipListSetItem<T> thisSet = heads.right[0];
+            for(Object other : set){
+                if(thisSet == null || !thisSet.payload.equals(other)){
+                    return false; //if no 2 elements are equal at the same position we return false
+                }
+                thisSet = thisSet.right[0];
+            }
+            return thisSet == null;//else they are the same!
+        }
+
+        try{
+            return containsAll(set);
+        }catch (ClassCastException | NullPointerException e){
+            return false; //it has elements we can't even compare
+        }
+    }
+
+
+    /*
+    *   we reset the heights of all our elements
+    *
+    *   We walk the bottom level once, give every element a new height
+    *   and link it after the last element we saw on each of its levels
+    * */
+    public void reBalance(){
+
+        SkipListSetItem<T>[] last = newUpdate(maxHeight);
+        int[] lastRank = new int[last.length];
+        Arrays.fill(last, heads);
+
+        SkipListSetItem<T> temp = heads.right[0]; //First element!
+        int rank = 0;
+
+        modCount++; //Towers change, iterators can't keep going
+        while (temp != null){ //while there are elements to rebalances
+            SkipListSetItem<T> next = temp.right[0]; // we save the next element
+            temp.resize(setHeight()); // get the element new height
+            temp.right[0] = next; // the bottom level stays the same, snapshots may be walking it
+            linkAfter(last, lastRank, temp, ++rank);
+            temp = next; // next element!
+        }
+        closeLevels(last, lastRank);
+        currentHeight = maxHeight;
+
+        setCurrentHeight(); //Drop the levels nobody reached
+        linksRebuilt();
+    }
+
+
+    /*
+    *   Returns the element at position index, the smallest element is at 0
+    *
+    *   We add up the widths of the links we take, moving right whenever
+    *   the link doesn't go past the position we want
+    *
+    *   @param  int index
+    *   @return T
+    * */
+    public T get(int index){
+        if(index < 0 || index >= size){
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+
+        return itemAt(index + 1).payload; //the heads are position 0
+    }
+
+
+    /*
+    *   Item at position target, counting the heads as position 0
+    *
+    *   We add up the widths of the links we take from the top,
+    *   so it is O(log n) wherever target is
+    * */
+    private SkipListSetItem<T> itemAt(int target){
+        SkipListSetItem<T> temp = heads;
+        int position = 0;
+
+        for(int level = currentHeight - 1; level >= 0; level--){
+            while (position + temp.width[level] <= target){
+                position += temp.width[level];
+                temp = temp.right[level];
+            }
+        }
+        return temp;
+    }
+
+
+    /*
+    *   Returns the position of o on the list, or -1 if it is not there
+    *
+    *   @param  T o
+    *   @return int
+    * */
+    public int indexOf(T o){
+        int less = countBelow(o, false);
+        if(less < size && itemAt(less + 1).payload.compareTo(o) == 0){
+            return less;
+        }
+        return -1;
+    }
+
+
+    /*
+    *   Returns how many elements are less than o,
+    *   o doesn't need to be on the list
+    *
+    *   @param  T o
+    *   @return int
+    * */
+    public int rank(T o){
+        return countBelow(o, false);
+    }
+
+
+    /*
+    *   Returns how many elements are greater or equal than from
+    *   and less than to, just like subSet(from, to)
+    *
+    *   @param  T from
+    *   @param  T to
+    *   @return int
+    * */
+    public int countInRange(T from, T to){
+        if(from.compareTo(to) > 0){
+            throw new IllegalArgumentException("from is greater than to");
+        }
+        return rank(to) - rank(from);
+    }
+
+
+    /*
+    *   Turns search statistics on or off
+    *
+    *   While they are off the only cost is one null check per search,
+    *   turning them off throws away what was collected
+    * */
+    public void setStatisticsEnabled(boolean enabled){
+        if(!enabled){
+            counters = null;
+        }else if(counters == null){
+            counters = new SearchCounters();
+        }
+    }
+
+    public boolean isStatisticsEnabled(){
+        return counters != null;
+    }
+
+    /*
+    *   Starts collecting from zero, if statistics are enabled
+    * */
+    public void resetStatistics(){
+        if(counters != null){
+            counters = new SearchCounters();
+        }
+    }
+
+
+    /*
+    *   Snapshot of the statistics and of the shape of the list
+    *   It walks the whole list once to count the elements on each level
+    * */
+    public SkipListStatistics statistics(){
+        return statistics(true);
+    }
+
+
+    /*
+    *   Same as statistics(), without the walk if levels is false
+    * */
+    SkipListStatistics statistics(boolean levels){
+        long[] histogram = new long[levels ? currentHeight : 0];
+        if(levels){
+            for(SkipListSetItem<T> temp = heads.right[0]; temp != null; temp = temp.right[0]){
+                for(int level = 0; level < temp.right.length && level < histogram.length; level++){
+                    histogram[level]++;
+                }
+            }
+        }
+
+        SearchCounters current = counters;
+        SearchCounters source = current == null ? new SearchCounters() : current;
+        return new SkipListStatistics(current != null, size, currentHeight,
+                source.contains.snapshot(), source.add.snapshot(), source.remove.snapshot(), histogram, levelGenerator.promotion());
+    }
+
+
+    /*
+    *   Method that I used to test SkipList add/remove/contains methods
+    *   Not recommended to use for large quantities of elements
+    * */
+    public void printSkipList(){ //Prints link list
+        SkipListSetItem<T> temp = heads;
+        System.out.println("Printing List");
+        while (temp.right[0] != null){
+            temp = temp.right[0];
+            System.out.println(temp.payload);
+
+        }
+
+
+    }
+
+
+    /*
+    *   returns First element on the list
+    * */
+    @Override
+    public T first() {
+        if(heads.right[0] == null){
+            throw new NoSuchElementException();
+        }
+        T first = heads.right[0].payload;
+        return first;
+    }
+
+    /*
+    *   returns last Element on the list
+    *   We keep track of it so there is no need to search
+    * */
+    @Override
+    public T last() {
+        if(tail == heads){
+            throw new NoSuchElementException();
+        }
+        T last = tail.payload;
+        return last;
+    }
+
+
+    /*
+    *   Last item on the list, null if the list is empty
+    * */
+    SkipListSetItem<T> lastItem(){
+        return tail == heads ? null : tail;
+    }
+
+
+    /*
+    *   First item greater or equal than o, null if there is none
+    * */
+    SkipListSetItem<T> ceilingItem(T o){
+        return readPredecessor(o).right[0];
+    }
+
+
+    /*
+    *   First item greater than o, null if there is none
+    * */
+    SkipListSetItem<T> higherItem(T o){
+        SkipListSetItem<T> temp = ceilingItem(o);
+        if(temp != null && temp.payload.compareTo(o) == 0){
+            temp = temp.right[0]; //o itself is here, skip it
+        }
+        return temp;
+    }
+
+
+    /*
+    *   Last item less than o, null if there is none
+    * */
+    SkipListSetItem<T> lowerItem(T o){
+        SkipListSetItem<T> temp = readPredecessor(o);
+        return temp == heads ? null : temp;
+    }
+
+
+    /*
+    *   Last item less or equal than o, null if there is none
+    * */
+    SkipListSetItem<T> floorItem(T o){
+        SkipListSetItem<T> temp = readPredecessor(o);
+        if(temp.right[0] != null && temp.right[0].payload.compareTo(o) == 0){
+            return temp.right[0];
+        }
+        return temp == heads ? null : temp;
+    }
+
+
+    /*
+    *   How many elements are less than o, or less or equal if inclusive
+    *
+    *   Like readPredecessor it only reads, the position is added up here
+    * */
+    private int countBelow(T o, boolean inclusive){
+        SkipListSetItem<T> temp = heads;
+        int position = 0;
+
+        for(int level = currentHeight - 1; level >= 0; level--){
+            while (temp.right[level] != null && temp.right[level].payload.compareTo(o) < 0){
+                position += temp.width[level];
+                temp = temp.right[level];
+            }
+        }
+        if(inclusive && temp.right[0] != null && temp.right[0].payload.compareTo(o) == 0){
+            return position + 1;
+        }
+        return position;
+    }
+
+
+    /*
+    *   Greatest element less than e, or null
+    * */
+    @Override
+    public T lower(T e) {
+        return payloadOf(lowerItem(e));
+    }
+
+
+    /*
+    *   Greatest element less or equal than e, or null
+    * */
+    @Override
+    public T floor(T e) {
+        return payloadOf(floorItem(e));
+    }
+
+
+    /*
+    *   Smallest element greater or equal than e, or null
+    * */
+    @Override
+    public T ceiling(T e) {
+        return payloadOf(ceilingItem(e));
+    }
+
+
+    /*
+    *   Smallest element greater than e, or null
+    * */
+    @Override
+    public T higher(T e) {
+        return payloadOf(higherItem(e));
+    }
+
+
+    /*
+    *   Removes and returns the first element, or null if the list is empty
+    *
+    *   The first element is right after the heads on every level it is on,
+    *   so we unlink it straight from the heads without searching.
+    *   The heads links above it only get one shorter
+    * */
+    @Override
+    public T pollFirst() {
+        SkipListSetItem<T> temp = heads.right[0];
+        if(temp == null){
+            return null;
+        }
+
+        recordNext(heads);
+        for(int level = 0; level < currentHeight; level++){
+            if(level < temp.right.length){
+                heads.right[level] = temp.right[level];
+                heads.width[level] += temp.width[level] - 1;
+            }else{
+                heads.width[level]--;
+            }
+            linkChanged(heads, level);
+        }
+        if(temp.right[0] != null){
+            temp.right[0].left = heads;
+        }else{
+            tail = heads; //It was the only one
+        }
+
+        size--;
+        modCount++;
+        setCurrentHeight();
+        return temp.payload;
+    }
+
+
+    /*
+    *   Removes and returns the last element, or null if the list is empty
+    *
+    *   On every level we go right until the next one is the tail, comparing
+    *   links instead of elements, and cut it there. The last link of every
+    *   level it is not on only gets one shorter
+    * */
+    @Override
+    public T pollLast() {
+        SkipListSetItem<T> last = tail;
+        if(last == heads){
+            return null;
+        }
+
+        SkipListSetItem<T> temp = heads;
+        for(int level = currentHeight - 1; level >= 0; level--){
+            while (temp.right[level] != null && temp.right[level] != last){
+                temp = temp.right[level];
+            }
+            if(temp.right[level] == last){
+                if(level == 0){
+                    recordNext(temp);
+                }
+                temp.right[level] = null; //Its width already counted until the end
+            }else{
+                temp.width[level]--;
+            }
+            update[level] = temp;
+        }
+        searched = null; //update now has the predecessors of the last one
+        for(int level = 0; level < currentHeight; level++){
+            linkChanged(update[level], level); //bottom up
+        }
+        tail = last.left;
+
+        size--;
+        modCount++;
+        setCurrentHeight();
+        return last.payload;
+    }
+
+
+    private static <T extends Comparable<T>> T payloadOf(SkipListSetItem<T> item){
+        return item == null ? null : item.payload;
+    }
+
+
+    /*
+    *   Return the size of the list
+    * */
+    @Override
+    public int size() {
+        return size;
+    }
+
+
+    /*
+    *   Tells whether the list is empty or not
+    * */
+    @Override
+    public boolean isEmpty() {
+        return heads.right[0] == null;
+    }
+
+
+    /*
+    *  Returns true if the list has certain element
+    *  otherwise false
+    *
+    *   @param  Object o
+    *
+    * */
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean contains(Object o) {
+        return findItem((T) o) != null;
+    }
+
+
+    /*
+    *   Returns the item that holds o, or null if it is not here
+    * */
+    SkipListSetItem<T> findItem(T o){
+        //Go all the way right on every level while next is less than o
+        SkipListSetItem<T> temp = readPredecessor(o);
+        if(counters != null){
+            counters.record(counters.contains);
+        }
+
+        //Then next element on the bottom is either o or greater than o
+        temp = temp.right[0];
+        return temp != null && temp.payload.compareTo(o) == 0 ? temp : null;
+    }
+
+
+    /*
+    *   Return our SkipList iterator!
+    * */
+    @Override
+    public java.util.Iterator<T> iterator() {
+        SkipListSetIterator Iterator = new SkipListSetIterator();
+        return Iterator;
+    }
+
+
+    /*
+    *   Iterator that goes from the last element to the first one
+    *   using the left links of the bottom level
+    * */
+    @Override
+    public Iterator<T> descendingIterator() {
+        return new SkipListSetIterator(lastItem(), null, true);
+    }
+
+
+    /*
+    *   Read only copy of the list as it is now, its elements are kept
+    *   on arrays instead of towers, see FrozenSortedSet
+    *
+    *   Later changes to the list don't change the copy
+    * */
+    public FrozenSortedSet<T> freeze(){
+        return new FrozenSortedSet<>(toArray());
+    }
+
+
+    /*
+    *   Read only view of the list as it is now, see SkipListSnapshot
+    *
+    *   Taking it is O(1), nothing is copied: the snapshot keeps the heads
+    *   and a version. From then on, before a link of the bottom level
+    *   changes its item remembers where it pointed (see recordNext),
+    *   so the snapshot can still walk the list as it was.
+    *   Those old links are dropped once no snapshot needs them,
+    *   after it is closed or garbage collected
+    *
+    *   The list is still not thread safe, writers that run alongside
+    *   snapshot readers have to hold the lock of the list while they write.
+    *   Readers only hold it for a short batch of elements at a time
+    *
+    *   A snapshot is meant to be iterated, only the bottom level keeps
+    *   old links. contains, and size of its range views, walk it from
+    *   the start, so they are O(n) and not O(log n) like on the list
+    * */
+    public SkipListSnapshot<T> snapshot(){
+        synchronized (this){
+            if(snapshots == null){
+                snapshots = new ArrayDeque<>();
+                oldLinks = new ArrayDeque<>();
+            }
+            SkipListSnapshot.Version<T> taken =
+                    new SkipListSnapshot.Version<>(version++, heads, tail == heads ? null : tail, size);
+            snapshots.add(new WeakReference<>(taken));
+            return new SkipListSnapshot<>(this, taken);
+        }
+    }
+
+
+    /*
+    *   Called right before the bottom link of item changes, while there
+    *   are snapshots the link it had is kept for them
+    *
+    *   Only the first change after the last snapshot is recorded,
+    *   every snapshot before it saw that same link
+    * */
+    private void recordNext(SkipListSetItem<T> item){
+        if(snapshots == null || item.oldLinks != null && item.oldLinks.until == version){
+            return;
+        }
+        item.oldLinks = new OldLink<>(version, item, item.right[0], item.oldLinks);
+        oldLinks.add(item.oldLinks);
+        if((oldLinks.size() & 1023) == 0){
+            reclaim(); //snapshots nobody closed are only noticed here
+        }
+    }
+
+
+    /*
+    *   Drops the old links no open snapshot can see anymore
+    *
+    *   A snapshot at version v needs the links changed after it, the
+    *   ones with until > v. Links are queued as they are made so until
+    *   only grows along the queue, and the one we drop is always the
+    *   oldest its item has
+    * */
+    void reclaim(){
+        if(snapshots == null){
+            return;
+        }
+        long oldest = Long.MAX_VALUE;
+        for(Iterator<WeakReference<SkipListSnapshot.Version<T>>> it = snapshots.iterator(); it.hasNext();){
+            SkipListSnapshot.Version<T> taken = it.next().get();
+            if(taken == null || taken.closed){
+                it.remove();
+            }else{
+                oldest = Math.min(oldest, taken.version);
+            }
+        }
+
+        while (!oldLinks.isEmpty() && oldLinks.peek().until <= oldest){
+            OldLink<T> link = oldLinks.poll();
+            if(link.item.oldLinks == link){
+                link.item.oldLinks = null;
+            }else{
+                OldLink<T> newer = link.item.oldLinks;
+                while (newer.older != link){
+                    newer = newer.older;
+                }
+                newer.older = null;
+            }
+        }
+
+        if(snapshots.isEmpty()){ //Nothing to keep until the next snapshot
+            snapshots = null;
+            oldLinks = null;
+        }
+    }
+
+
+    /*
+    *   The bottom link of item as the snapshot at version sees it
+    * */
+    static <T extends Comparable<T>> SkipListSetItem<T> nextAt(SkipListSetItem<T> item, long version){
+        SkipListSetItem<T> next = item.right[0];
+        for(OldLink<T> link = item.oldLinks; link != null && version < link.until; link = link.older){
+            next = link.next;
+        }
+        return next;
+    }
+
+
+    /*
+    *   Spliterator that splits in two halves of the same size,
+    *   see SkipListSetSpliterator
+    * */
+    @Override
+    public Spliterator<T> spliterator() {
+        return new SkipListSetSpliterator(heads.right[0], 1, size + 1);
+    }
+
+
+    /*
+    *   New cursor, before the first element
+    * */
+    public Cursor cursor(){
+        return new Cursor();
+    }
+
+
+    /*
+    *   Live view of this list in reverse order
+    * */
+    @Override
+    public NavigableSet<T> descendingSet() {
+        return new SkipListSubSet(true, null, false, true, null, false, true);
+    }
+
+
+    /*
+    *   Live views of part of the list
+    *   Changes on a view are seen on the list and the other way around
+    * */
+    @Override
+    public NavigableSet<T> subSet(T fromElement, boolean fromInclusive, T toElement, boolean toInclusive) {
+        return new SkipListSubSet(false, fromElement, fromInclusive, false, toElement, toInclusive, false);
+    }
+
+    @Override
+    public NavigableSet<T> headSet(T toElement, boolean inclusive) {
+        return new SkipListSubSet(true, null, false, false, toElement, inclusive, false);
+    }
+
+    @Override
+    public NavigableSet<T> tailSet(T fromElement, boolean inclusive) {
+        return new SkipListSubSet(false, fromElement, inclusive, true, null, false, false);
+    }
+
+    @Override
+    public SortedSet<T> subSet(T fromElement, T toElement) {
+        return subSet(fromElement, true, toElement, false);
+    }
+
+    @Override
+    public SortedSet<T> headSet(T toElement) {
+        return headSet(toElement, false);
+    }
+
+    @Override
+    public SortedSet<T> tailSet(T fromElement) {
+        return tailSet(fromElement, true);
+    }
+
+
+    /*
+    *   Return an array of objects
+    * */
+    @Override
+    public Object[] toArray() {
+
+        SkipListSetItem<T> temp = heads.right[0];
+        Object[] myArray =  new Object[size];
+
+
+
+
+        for(int i = 0; i < size; i++){
+            myArray[i] = temp.payload;
+            temp = temp.right[0];
+            if(temp == null){
+                break;
+            }
+        }
+        return myArray;
+    }
+
+
+    /*
+    *   Given an array we populate it with our List elements
+    *
+    * */
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T1> T1[] toArray(T1[] a) {
+
+        SkipListSetItem<T> temp = heads.right[0];
+        if (a.length < size) {
+            a = (T1[]) Array.newInstance(a.getClass().getComponentType(), size);
+
+
+
+        } else if (a.length > size) {
+            a[size] = null;
+        }
+
+        for(int i = 0; i < size; i++){
+            a[i] = (T1) temp.payload;
+            temp = temp.right[0];
+        }
+        return a;
+    }
+
+
+    /*
+    *   We add element t to our List
+    *
+    *   One search from the top finds the predecessor on every level,
+    *   then the new element is linked right after each of them
+    * */
+    @Override
+    public boolean add(T t) {
+        //It is already here, no duplicates!
+        if(search(t) != null){
+            return false;
+        }
+
+        linkNew(newItem(t, setHeight()));
+        return true;
+    }
+
+
+    /*
+    *   Searches for t like add does, and keeps its predecessor on
+    *   every level, so linkNew or unlinkFound don't have to search again
+    *
+    *   @return     the item that holds t, or null if it is not here
+    * */
+    SkipListSetItem<T> search(T t){
+        SkipListSetItem<T> temp = locate(t);
+        searched = t;
+        if(counters != null){
+            counters.record(counters.add);
+        }
+
+        temp = temp.right[0];
+        return temp != null && temp.payload.compareTo(t) == 0 ? temp : null;
+    }
+
+
+    /*
+    *   Searches for t again, unless the last search was already for t
+    *   and the list didn't change since. For callers that run other
+    *   code between search and linkNew
+    *
+    *   @return     the item that holds t, or null if it is not here
+    * */
+    SkipListSetItem<T> research(T t, int expectedModCount){
+        if(modCount != expectedModCount){
+            throw new ConcurrentModificationException();
+        }
+        if(searched != t){
+            return search(t);
+        }
+        SkipListSetItem<T> temp = update[0].right[0];
+        return temp != null && temp.payload.compareTo(t) == 0 ? temp : null;
+    }
+
+
+    /*
+    *   Links newItem where the last search stopped
+    *   Nothing can change the list between that search and this
+    * */
+    void linkNew(SkipListSetItem<T> newItem){
+        searched = null;
+        linkNew(newItem, update, updateRank);
+        fingerModCount = modCount; //update is still right around the new item
+    }
+
+
+    /*
+    *   Links newItem after update, the predecessors of its payload,
+    *   at the positions on rank
+    * */
+    private void linkNew(SkipListSetItem<T> newItem, SkipListSetItem<T>[] update, int[] rank){
+        spliceIn(newItem, update, rank, size);
+        size++; //Increase height
+        modCount++;
+    }
+
+
+    /*
+    *   The links of linkNew, without counting the new element,
+    *   so a batch can count them all at the end
+    *
+    *   count is how many elements the list really has
+    * */
+    private void spliceIn(SkipListSetItem<T> newItem, SkipListSetItem<T>[] update, int[] rank, int count){
+        int newNodeheight = newItem.right.length;
+
+        //Levels nobody was using, the search didn't go through them
+        for(int level = currentHeight; level < newNodeheight; level++){
+            update[level] = heads;
+            rank[level] = 0;
+        }
+        growHeads(newNodeheight, count);
+
+        //set links of the new item
+        //the new item sits at position rank[0] + 1, so the links we
+        //cut are split in two, and the ones that jump over it grow by one
+        int position = rank[0] + 1;
+        recordNext(update[0]);
+        for(int level = 0; level < currentHeight; level++){
+            if(level < newNodeheight){
+                newItem.right[level] = update[level].right[level];
+                newItem.width[level] = update[level].width[level] - (position - rank[level]) + 1;
+                update[level].right[level] = newItem;
+                update[level].width[level] = position - rank[level];
+                linkChanged(newItem, level);
+            }else{
+                update[level].width[level]++;
+            }
+            linkChanged(update[level], level);
+        }
+
+        //Only the bottom level links back
+        newItem.left = update[0];
+        if(newItem.right[0] != null){
+            newItem.right[0].left = newItem;
+        }else{
+            tail = newItem; //It is the new last one
+        }
+    }
+
+
+    /*
+    *   Returns the log base 2 of any passed number
+    *
+    *   @param  int a
+    *   @return int result
+    * */
+    public int log2(int a){
+        if(a <= 0){ //There is no log of 0, an empty list simply has no height
+            return 0;
+        }
+        int result = 31 - Integer.numberOfLeadingZeros(a); //Position of the highest bit
+        return result;
+    }
+
+    /*
+    *   Remove an item using the iterator
+    * */
+    public boolean removeUsingIterator(Object o) {
+        return  remove(o);
+    }
+
+
+    /*
+    *   Remove an Object o from our SkipList set
+    *
+    * */
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean remove(Object o) {
+        return removeItem((T) o) != null;
+    }
+
+
+    /*
+    *   Removes o and returns the item that held it, or null if it was not here
+    * */
+    SkipListSetItem<T> removeItem(T o){
+        SkipListSetItem<T> temp = locate(o);
+        if(counters != null){
+            counters.record(counters.remove);
+        }
+
+        temp = temp.right[0];
+        if(temp == null || temp.payload.compareTo(o) != 0){ //It is not here
+            return null;
+        }
+        unlinkFound(temp);
+        return temp;
+    }
+
+
+    /*
+    *   Unlinks item, which the last search found
+    *
+    * */
+    void unlinkFound(SkipListSetItem<T> temp){
+        searched = null;
+        unlinkFound(temp, update);
+        fingerModCount = modCount; //update is still right around where it was
+    }
+
+
+    //Unlinks temp from update, its predecessors
+    private void unlinkFound(SkipListSetItem<T> temp, SkipListSetItem<T>[] update){
+        spliceOut(temp, update);
+        size--; //decrease list size
+        modCount++;
+        setCurrentHeight();//Set our new List height
+    }
+
+
+    /*
+    *   The links of unlinkFound, without counting the removed element
+    *   or dropping empty levels, so a batch can do that once at the end
+    * */
+    private void spliceOut(SkipListSetItem<T> temp, SkipListSetItem<T>[] update){
+        //dereference the whole tower!
+        //its links are merged into the ones before it, every other link shrinks by one
+        recordNext(update[0]);
+        for(int level = 0; level < currentHeight; level++){
+            if(level < temp.right.length){
+                update[level].right[level] = temp.right[level];
+                update[level].width[level] += temp.width[level] - 1;
+            }else{
+                update[level].width[level]--;
+            }
+            linkChanged(update[level], level);
+        }
+        if(temp.right[0] != null){
+            temp.right[0].left = temp.left;
+        }else{
+            tail = temp.left; //We removed the last one
+        }
+    }
+
+
+    /*
+    *   Returns whether of not our Skip List contains
+    *   all the elements of the passed collection
+    *
+    *   @param  Collection<?> c
+    *   @return boolean
+    * */
+    @Override
+    public boolean containsAll(Collection<?> c) {
+
+        if(fewComparedTo(c.size())){ //a few searches are cheaper
+            for(Object t: c){
+                if(!contains(t)){
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        //Walk both in order, every element of c has to show up on our bottom level
+        Comparator<Object> natural = natural();
+        SkipListSetItem<T> temp = heads.right[0];
+        for(Object t : sortedDistinct(c)){
+            while (temp != null && natural.compare(temp.payload, t) < 0){
+                temp = temp.right[0];
+            }
+            if(temp == null || natural.compare(temp.payload, t) != 0){
+                return false;
+            }
+        }
+        return true;
+    }
+
+
+    /*
+    *   Adds all elements from a collection to our list
+    *
+    *   @param  Collection<? extends T> c
+    *   @return Boolean
+    * */
+    @Override
+    public boolean addAll(Collection<? extends T> c) {
+
+        //Nothing to merge with, build the whole list at once
+        if(isEmpty()){
+            bulkLoad(c);
+            return size > 0;
+        }
+
+        if(fewComparedTo(c.size())){ //a few adds are cheaper
+            if(isNaturalSorted(c)){ //one walk for all of them
+                return addAllSorted(c);
+            }
+            boolean addAll = false;
+            for(T t : c){
+                if(add(t)){ //add already ignores duplicates
+                    addAll = true;
+                }
+            }
+            return addAll;
+        }
+
+        return mergeIn(sortedDistinct(c));
+    }
+
+
+    /*
+    *   Adds a batch of elements that come in ascending order
+    *
+    *   Instead of one search from the heads per element, each one is found
+    *   from the predecessors of the one before (see fingerSearch), so the
+    *   batch walks the list once, and a run of new elements that go between
+    *   the same two old ones is linked one after the other.
+    *   size and modCount change once for the whole batch
+    *
+    *   Elements out of order or repeated still work, only slower
+    *
+    *   @param  Collection<? extends T> sorted
+    *   @return boolean     true if anything was added
+    * */
+    public boolean addAllSorted(Collection<? extends T> sorted){
+        if(isEmpty()){ //Nothing to walk, build the whole list at once
+            bulkLoad(sorted);
+            return size > 0;
+        }
+
+        T last = null;
+        int added = 0;
+        try{
+            for(T t : sorted){
+                SkipListSetItem<T> temp = last == null ? findPredecessors(t, update, updateRank)
+                                                       : fingerSearch(t, update, updateRank, t.compareTo(last));
+                if(counters != null){
+                    counters.record(counters.add);
+                }
+                last = t;
+
+                temp = temp.right[0];
+                if(temp == null || temp.payload.compareTo(t) != 0){ //no duplicates!
+                    spliceIn(newItem(t, setHeight()), update, updateRank, size + added);
+                    added++;
+                }
+            }
+        }finally{
+            finishBatch(last, added);
+        }
+        return added > 0;
+    }
+
+
+    /*
+    *   Removes a batch of elements that come in ascending order,
+    *   walking the list once like addAllSorted. Empty levels are
+    *   dropped once at the end
+    *
+    *   @param  Collection<?> sorted
+    *   @return boolean     true if anything was removed
+    * */
+    @SuppressWarnings("unchecked")
+    public boolean removeAllSorted(Collection<?> sorted){
+        T last = null;
+        int removed = 0;
+        try{
+            for(Object o : sorted){
+                if(removed == size){ //Nothing left to remove
+                    break;
+                }
+                T t = (T) o;
+                SkipListSetItem<T> temp = last == null ? findPredecessors(t, update, updateRank)
+                                                       : fingerSearch(t, update, updateRank, t.compareTo(last));
+                if(counters != null){
+                    counters.record(counters.remove);
+                }
+                last = t;
+
+                temp = temp.right[0];
+                if(temp != null && temp.payload.compareTo(t) == 0){
+                    spliceOut(temp, update);
+                    removed++;
+                }
+            }
+        }finally{
+            finishBatch(last, -removed);
+        }
+        return removed > 0;
+    }
+
+
+    /*
+    *   Counts what a batch changed, update is left as the finger of last
+    * */
+    private void finishBatch(T last, int changed){
+        size += changed;
+        if(changed != 0){
+            modCount++;
+            setCurrentHeight();
+        }
+        searched = null;
+        fingerKey = last;
+        fingerModCount = modCount;
+    }
+
+
+    /*
+    *   Merges sorted, distinct elements into the list in one walk
+    *
+    *   We go through our bottom level and the array side by side, taking
+    *   the smaller one each time, and link it after the last item we saw
+    *   on each of its levels. Items we already had keep their towers,
+    *   new ones get a new height
+    *
+    *   @param  Object[] sorted
+    *   @return boolean     true if anything was added
+    * */
+    @SuppressWarnings("unchecked")
+    private boolean mergeIn(Object[] sorted){
+        Comparator<Object> natural = natural();
+
+        SkipListSetItem<T>[] last = newUpdate(maxHeight); //new elements can be as tall as any other
+        int[] lastRank = new int[last.length];
+        Arrays.fill(last, heads);
+
+        SkipListSetItem<T> temp = heads.right[0];
+        int i = 0;
+        int rank = 0;
+
+        while (temp != null || i < sorted.length){
+            SkipListSetItem<T> item;
+            int c = temp == null ? 1 : i == sorted.length ? -1 : natural.compare(temp.payload, sorted[i]);
+
+            if(c <= 0){ //ours goes first, or it is the same element
+                item = temp;
+                temp = temp.right[0];
+                if(c == 0){
+                    i++;
+                }
+            }else{
+                item = newItem((T) sorted[i++], setHeight());
+            }
+
+            item.left = last[0];
+            linkAfter(last, lastRank, item, ++rank);
+        }
+
+        boolean added = rank != size;
+        size = rank;
+        closeLevels(last, lastRank);
+        tail = last[0];
+        if(added){
+            modCount++;
+        }
+        currentHeight = maxHeight;
+        setCurrentHeight();
+        linksRebuilt();
+        return added;
+    }
+
+
+    /*
+    *   Keeps elements that are only on the collection
+    *   and the skip list
+    *
+    *   We walk our list and the sorted elements of c side by side
+    *   once, and drop what is not in c
+    *
+    *   @param  Collection<?> c
+    * */
+    @Override
+    public boolean retainAll(Collection<?> c) {
+        java.util.function.Predicate<T> inC = sortedMembership(sortedDistinct(c));
+        return removeIf(inC.negate());
+    }
+
+
+    /*
+    *   Remove all element from our list that are in a collection
+    *
+    *   If c is big compared to us we don't search for each element,
+    *   we walk our list and the sorted elements of c side by side once
+    *
+    *   @param  Collection<?> c
+    *   @return boolean
+    * */
+    @Override
+    public boolean removeAll(Collection<?> c) {
+        if(fewComparedTo(c.size())){ //a few removes are cheaper
+            if(isNaturalSorted(c)){
+                return removeAllSorted(c);
+            }
+            boolean removeAll = false;
+            for(Object t : c){ // loop trrough elements of the collection
+                if(remove(t)){ //remove tells us if it was there
+                    removeAll = true;
+                }
+            }
+            return removeAll;
+        }
+
+        return removeIf(sortedMembership(sortedDistinct(c)));
+    }
+
+
+    /*
+    *   Remove every element that matches the filter
+    *
+    *   Instead of searching for each one we walk the bottom level once
+    *   and link every element we keep after the last one we kept on each
+    *   of its levels, just like reBalance but keeping the heights.
+    *   The widths are recomputed on the way
+    *
+    *   @param  Predicate<? super T> filter
+    *   @return boolean     true if anything was removed
+    * */
+    @Override
+    public boolean removeIf(java.util.function.Predicate<? super T> filter) {
+        Objects.requireNonNull(filter);
+
+        SkipListSetItem<T>[] last = newUpdate(currentHeight);
+        int[] lastRank = new int[last.length];
+        Arrays.fill(last, heads);
+
+        SkipListSetItem<T> temp = heads.right[0];
+        int kept = 0;
+        RuntimeException failure = null; //if the filter fails we still relink everything
+
+        while (temp != null){
+            SkipListSetItem<T> next = temp.right[0];
+
+            boolean drop = false;
+            if(failure == null){
+                try{
+                    drop = filter.test(temp.payload);
+                }catch (RuntimeException e){
+                    failure = e;
+                }
+            }
+
+            if(!drop){
+                temp.left = last[0];
+                linkAfter(last, lastRank, temp, ++kept);
+            }
+            temp = next;
+        }
+
+        boolean removed = kept != size;
+        size = kept;
+        closeLevels(last, lastRank);
+        tail = last[0];
+        if(removed){
+            modCount++;
+        }
+        setCurrentHeight();
+        linksRebuilt();
+
+        if(failure != null){
+            throw failure;
+        }
+        return removed;
+    }
+
+
+    /*
+    *   Clear our SkipList
+    * */
+    @Override
+    public void clear() {
+        setHeads();
+        size = 0;
+        modCount++;
+        linksRebuilt();
+    }
+
+
+    /*
+    *   Removes the elements from fromElement, inclusive, to toElement,
+    *   exclusive, and returns how many there were
+    *
+    *   @param  T fromElement
+    *   @param  T toElement
+    *   @return int
+    * */
+    public int removeRange(T fromElement, T toElement){
+        Objects.requireNonNull(fromElement);
+        Objects.requireNonNull(toElement);
+        if(fromElement.compareTo(toElement) > 0){
+            throw new IllegalArgumentException("fromElement > toElement");
+        }
+        return removeBetween(fromElement, true, toElement, false);
+    }
+
+
+    /*
+    *   Removes the elements between from and to, and returns how many there were
+    *   A null bound means that side has no bound
+    *
+    *   Two searches find the last item before the range and the last one
+    *   inside it on every level. Then the first one takes the link of the
+    *   second, so every level skips the whole range at once and nothing
+    *   inside it is visited, it is O(log n) however many elements go
+    * */
+    int removeBetween(T from, boolean fromInclusive, T to, boolean toInclusive){
+        SkipListSetItem<T>[] before = newUpdate(currentHeight);
+        int[] beforeRank = new int[before.length];
+        SkipListSetItem<T>[] last = newUpdate(currentHeight);
+        int[] lastRank = new int[last.length];
+
+        if(from == null){
+            Arrays.fill(before, heads);
+        }else{
+            findBoundary(from, !fromInclusive, before, beforeRank);
+        }
+        findBoundary(to, toInclusive, last, lastRank);
+
+        int removed = lastRank[0] - beforeRank[0];
+        if(removed <= 0){
+            return 0;
+        }
+
+        recordNext(before[0]);
+        for(int level = 0; level < currentHeight; level++){
+            //where the link after the range ends, once the range is gone
+            int end = lastRank[level] + last[level].width[level] - removed;
+            before[level].right[level] = last[level].right[level];
+            before[level].width[level] = end - beforeRank[level];
+            linkChanged(before[level], level);
+        }
+        if(before[0].right[0] != null){
+            before[0].right[0].left = before[0];
+        }else{
+            tail = before[0]; //We removed up to the end
+        }
+
+        size -= removed;
+        modCount++;
+        setCurrentHeight();
+        return removed;
+    }
+
+
+    /*
+    *   Moves the elements from at on to a new list, and returns it
+    *
+    *   One search finds the last item before at on every level, and every
+    *   level is cut there, the heads of the new list take the links that
+    *   went past it. No item is copied or gets a new height, so it is O(log n)
+    *
+    *   The new list has our level generator and maxHeight. While a snapshot
+    *   is open the elements are copied instead, it may still be walking them
+    *
+    *   @param  T at
+    *   @return SkipListSet<T> with the elements not less than at
+    * */
+    public SkipListSet<T> split(T at){
+        Objects.requireNonNull(at);
+        SkipListSet<T> upper = newList(levelGenerator, maxHeight);
+
+        SkipListSetItem<T>[] before = newUpdate(currentHeight);
+        int[] beforeRank = new int[before.length];
+        findBoundary(at, false, before, beforeRank);
+
+        int kept = beforeRank[0];
+        if(kept == size){
+            return upper; //nothing to move
+        }
+        if(snapshots != null){
+            upper.addAll(tailSet(at, true));
+            removeBetween(at, true, null, false);
+            return upper;
+        }
+
+        recordNext(before[0]);
+        upper.currentHeight = currentHeight;
+        for(int level = 0; level < currentHeight; level++){
+            //positions on upper are kept less than ours
+            upper.heads.right[level] = before[level].right[level];
+            upper.heads.width[level] = beforeRank[level] + before[level].width[level] - kept;
+            before[level].right[level] = null;
+            before[level].width[level] = kept + 1 - beforeRank[level];
+            linkChanged(before[level], level);
+            upper.linkChanged(upper.heads, level);
+        }
+        upper.heads.right[0].left = upper.heads;
+        upper.tail = tail;
+        tail = before[0];
+
+        upper.size = size - kept;
+        size = kept;
+        modCount++;
+        upper.modCount++;
+        setCurrentHeight();
+        upper.setCurrentHeight();
+        return upper;
+    }
+
+
+    /*
+    *   Moves all the elements of other to the end of this list,
+    *   they have to be greater than ours. other is left empty
+    *
+    *   One walk down our right side finds the last item of every level,
+    *   and each of them takes the link of the heads of other there,
+    *   so it is O(log n) too. If the items of other can't be ours as they
+    *   are (see canAdopt) or it has a snapshot open, they are copied instead
+    *
+    *   @param  SkipListSet<T> other
+    * */
+    public void concat(SkipListSet<T> other){
+        Objects.requireNonNull(other);
+        if(other == this){
+            throw new IllegalArgumentException("concat with itself");
+        }
+        if(other.isEmpty()){
+            return;
+        }
+        if(tail != heads && tail.payload.compareTo(other.heads.right[0].payload) >= 0){
+            throw new IllegalArgumentException("other has elements not greater than ours");
+        }
+        if(!canAdopt(other) || other.snapshots != null){
+            addAll(other);
+            other.clear();
+            return;
+        }
+
+        growHeads(other.currentHeight, size);
+        SkipListSetItem<T>[] last = newUpdate(currentHeight);
+        int[] lastRank = new int[last.length];
+        findBoundary(null, true, last, lastRank);
+
+        int total = size + other.size;
+        recordNext(last[0]);
+        for(int level = 0; level < currentHeight; level++){
+            if(level < other.currentHeight){
+                last[level].right[level] = other.heads.right[level];
+                last[level].width[level] = size + other.heads.width[level] - lastRank[level];
+            }else{
+                last[level].width[level] = total + 1 - lastRank[level]; //still the end
+            }
+            linkChanged(last[level], level);
+        }
+        other.heads.right[0].left = last[0];
+        tail = other.tail;
+
+        size = total;
+        modCount++;
+        other.clear();
+    }
+
+
+    /*
+    *   The last item before o on every level, or not after o if inclusive,
+    *   with its position, counting the heads as position 0
+    *   A null o goes after everything, so we get the last item of every level
+    * */
+    private void findBoundary(T o, boolean inclusive, SkipListSetItem<T>[] found, int[] rank){
+        SkipListSetItem<T> temp = heads;
+        int position = 0;
+
+        for(int level = currentHeight - 1; level >= 0; level--){
+            while (temp.right[level] != null && (o == null || reaches(temp.right[level].payload, o, inclusive))){
+                position += temp.width[level];
+                temp = temp.right[level];
+            }
+            found[level] = temp;
+            rank[level] = position;
+        }
+    }
+
+    //True if t is before o, or it is o and inclusive
+    private static <T extends Comparable<T>> boolean reaches(T t, T o, boolean inclusive){
+        int c = t.compareTo(o);
+        return c < 0 || inclusive && c == 0;
+    }
+
+
+    //An empty list for split, a subclass returns one of its own kind
+    SkipListSet<T> newList(LevelGenerator levelGenerator, int maxHeight){
+        return new SkipListSet<>(levelGenerator, maxHeight);
+    }
+
+
+    /*
+    *   True if concat can link the items of other as they are:
+    *   they are made the same way ours are and fit under our heads
+    * */
+    boolean canAdopt(SkipListSet<T> other){
+        return other.getClass() == getClass() && other.currentHeight <= maxHeight;
+    }
+
+
+    /*
+    *   Where the bottom link of item pointed before the first change
+    *   made at version until, snapshots older than that still follow it
+    * */
+    static final class OldLink<T extends Comparable<T>> {
+        final long until;
+        final SkipListSetItem<T> item;
+        final SkipListSetItem<T> next;
+        OldLink<T> older;   //the link it had before this one
+
+
+        OldLink(long until, SkipListSetItem<T> item, SkipListSetItem<T> next, OldLink<T> older){
+            this.until = until;
+            this.item = item;
+            this.next = next;
+            this.older = older;
+        }
+    }
+
+
+    /*
+    *   Counters behind statistics(), a search leaves its numbers here
+    *   and the operation that made it adds them to its own counter
+    * */
+    private static final class SearchCounters {
+
+        final OperationCounter contains = new OperationCounter();
+        final OperationCounter add = new OperationCounter();
+        final OperationCounter remove = new OperationCounter();
+        int lastVisited, lastComparisons;
+
+        void searched(int visited, int comparisons){
+            lastVisited = visited;
+            lastComparisons = comparisons;
+        }
+
+        void record(OperationCounter operation){
+            operation.count++;
+            operation.totalVisited += lastVisited;
+            operation.maxVisited = Math.max(operation.maxVisited, lastVisited);
+            operation.totalComparisons += lastComparisons;
+            operation.maxComparisons = Math.max(operation.maxComparisons, lastComparisons);
+        }
+    }
+
+    private static final class OperationCounter {
+
+        long count, totalVisited, totalComparisons;
+        int maxVisited, maxComparisons;
+
+        SkipListStatistics.Operation snapshot(){
+            return new SkipListStatistics.Operation(count, totalVisited, maxVisited, totalComparisons, maxComparisons);
+        }
+    }
+
+
+    /*
+    *   Class that works as a item wrapper
+    *   There is only one item per element, it keeps
+    *       right:  the next item on each level the element is on,
+    *               the length of the array is the element height
+    *       left:   the previous item on the bottom level
+    *       width:  how many elements each right link moves forward,
+    *               the last link of a level counts until the end of the list
+    *
+    *   It is static so items don't carry a reference to the list
+    *
+    *   We implement comparable to compare the items payloads
+    * */
+    static class SkipListSetItem<T extends Comparable<T>> implements Comparable<T>{
+        T payload;
+
+        SkipListSetItem<T>[] right;
+        SkipListSetItem<T> left;
+        int[] width;
+        OldLink<T> oldLinks;    //where right[0] pointed before, newest first, null without snapshots
+
+
+        //Constructor for an item that receives a payload and its height
+        public SkipListSetItem(T payload, int height){
+            this.payload = payload;
+            resize(height);
+        }
+
+
+        //Gives the item a new height, all its links start empty
+        @SuppressWarnings("unchecked")
+        void resize(int height){
+            this.right = (SkipListSetItem<T>[]) new SkipListSetItem[height];
+            this.width = new int[height];
+        }
+
+
+
+
+        /*
+        *   Compare to method that compare items payload
+        *
+        *   @param  T o
+        *   @return int compareTo
+        *
+        * */
+        @Override
+        public int compareTo(T o) {
+
+            //Compares Payloads
+            int compareTo = 0;
+            if(o.compareTo(payload) == 0 || o.equals(payload)){
+                compareTo = 0;
+            }else if(o.compareTo(payload) <= -1){
+                compareTo = -1;
+            }else if(o.compareTo(payload) >= 1){
+                compareTo = 1;
+            }
+
+            return compareTo;
+
+        }
+    }
+
+
+    /*
+    *   Iterator class that allow us for easy traversal of our SkipList
+    *
+    *   It can go forward on the right links or backwards on the left links,
+    *   and stop at the bounds of a range view
+    *
+    *   Going forward it remembers the last item it passed on every level,
+    *   those are the predecessors of the current item, so remove() unlinks
+    *   the tower right away instead of searching for it again
+    *
+    *   Any change not made through this iterator makes it throw
+    *   ConcurrentModificationException
+    * */
+    class SkipListSetIterator implements Iterator <T>{
+
+        SkipListSetItem<T> nextItem;        //item that next() returns
+        SkipListSetItem<T> lastReturned;    //item that remove() removes
+        final SkipListSubSet range;         //bounds to stop at, null for the whole list
+        final boolean descending;
+        final SkipListSetItem<T>[] preds;   //last item passed on each level, only going forward
+        int expectedModCount = modCount;
+
+        //When declareing our iterator we start from the first element
+        public SkipListSetIterator(){
+            this(heads.right[0], null, false);
+        }
+
+        //Iterator that starts at first, which is already inside range
+        SkipListSetIterator(SkipListSetItem<T> first, SkipListSubSet range, boolean descending){
+            this.nextItem = first;
+            this.range = range;
+            this.descending = descending;
+
+            if(descending){
+                preds = null;
+            }else{
+                preds = newUpdate(maxHeight);
+                if(first == null || first == heads.right[0]){
+                    Arrays.fill(preds, heads);
+                }else{
+                    findPredecessors(first.payload, preds, null);
+                }
+            }
+        }
+
+        /*
+        *   If our next item is not null then there is a next item
+        * */
+        @Override
+        public boolean hasNext() {
+            return nextItem != null;
+        }
+
+        /*
+        *   We return the payload of next item
+        *   and move to the one after it
+        * */
+        @Override
+        public T next() {
+            return advance().payload;
+        }
+
+        /*
+        *   Same as next() but returns the item
+        * */
+        SkipListSetItem<T> advance() {
+            checkForComodification();
+            if(nextItem == null){
+                throw new NoSuchElementException();
+            }
+
+            //The item we returned before is now behind us on all its levels
+            if(!descending && lastReturned != null){
+                for(int level = 0; level < lastReturned.right.length; level++){
+                    preds[level] = lastReturned;
+                }
+            }
+            lastReturned = nextItem;
+
+            if(descending){
+                nextItem = nextItem.left == heads ? null : nextItem.left;
+            }else{
+                nextItem = nextItem.right[0];
+            }
+
+            //Stop once we leave the range
+            if(nextItem != null && range != null
+                    && (descending ? range.tooLow(nextItem.payload) : range.tooHigh(nextItem.payload))){
+                nextItem = null;
+            }
+            return lastReturned;
+        }
+
+        /*
+        *   Calls action on every element left, checking for changes once per element
+        * */
+        @Override
+        public void forEachRemaining(java.util.function.Consumer<? super T> action) {
+            Objects.requireNonNull(action);
+            while (nextItem != null){
+                action.accept(next());
+            }
+        }
+
+        /*
+        *   We remove the item next() returned last
+        *
+        *   Going forward its predecessors are in preds, so we unlink every
+        *   level of its tower from them. Going backwards we don't have them
+        *   and we search for it
+        * */
+        @Override
+        public void remove() {
+            if(lastReturned == null){
+                throw new IllegalStateException();
+            }
+            checkForComodification();
+
+            if(descending){
+                removeUsingIterator(lastReturned.payload);
+            }else{
+                SkipListSetItem<T> temp = lastReturned;
+                recordNext(preds[0]);
+                for(int level = 0; level < currentHeight; level++){
+                    if(level < temp.right.length){
+                        preds[level].right[level] = temp.right[level];
+                        preds[level].width[level] += temp.width[level] - 1;
+                    }else{
+                        preds[level].width[level]--; //it jumped over the removed item
+                    }
+                    linkChanged(preds[level], level);
+                }
+                if(temp.right[0] != null){
+                    temp.right[0].left = temp.left;
+                }else{
+                    tail = temp.left;
+                }
+
+                size--;
+                modCount++;
+                setCurrentHeight();
+            }
+
+            lastReturned = null;
+            expectedModCount = modCount;
+        }
+
+        void checkForComodification(){
+            if(modCount != expectedModCount){
+                throw new ConcurrentModificationException();
+            }
+        }
+    }
+
+
+    /*
+    *   Spliterator over the items between two positions of the list,
+    *   from position index up to fence, fence not included
+    *
+    *   Since we know positions, trySplit cuts at the middle one exactly:
+    *   it finds that item going down the express levels from the top with
+    *   the link widths, O(log n), and the first half goes to the new
+    *   spliterator. So both halves always have the same size, and
+    *   parallel streams get balanced tasks all the way down
+    *
+    *   It is fail-fast like our iterator
+    * */
+    final class SkipListSetSpliterator implements Spliterator<T> {
+
+        private SkipListSetItem<T> current;     //item at position index
+        private int index;
+        private final int fence;
+        private final int expectedModCount = modCount;
+
+        SkipListSetSpliterator(SkipListSetItem<T> current, int index, int fence){
+            this.current = current;
+            this.index = index;
+            this.fence = fence;
+        }
+
+        @Override
+        public boolean tryAdvance(java.util.function.Consumer<? super T> action) {
+            Objects.requireNonNull(action);
+            if(index >= fence){
+                return false;
+            }
+            checkForComodification();
+            T payload = current.payload;
+            current = current.right[0];
+            index++;
+            action.accept(payload);
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(java.util.function.Consumer<? super T> action) {
+            Objects.requireNonNull(action);
+            checkForComodification();
+            SkipListSetItem<T> temp = current;
+            int end = fence;
+            for(int i = index; i < end; i++){
+                action.accept(temp.payload);
+                temp = temp.right[0];
+            }
+            current = temp;
+            index = end;
+            checkForComodification();
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            int mid = (index + fence) >>> 1;
+            if(mid <= index){ //one element left, nothing to split
+                return null;
+            }
+            checkForComodification();
+            SkipListSetSpliterator prefix = new SkipListSetSpliterator(current, index, mid);
+            current = itemAt(mid);
+            index = mid;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return fence - index;
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.SORTED | Spliterator.DISTINCT | Spliterator.ORDERED
+                    | Spliterator.NONNULL | Spliterator.SIZED | Spliterator.SUBSIZED;
+        }
+
+        @Override
+        public Comparator<? super T> getComparator() {
+            return null; //natural order
+        }
+
+        private void checkForComodification(){
+            if(modCount != expectedModCount){
+                throw new ConcurrentModificationException();
+            }
+        }
+    }
+
+
+    /*
+    *   A position on the list for sequential work
+    *
+    *   The cursor keeps its own finger, the predecessors of where it is
+    *   on every level, and every operation is a finger search from there.
+    *   So seek, contains, add and remove near the cursor cost O(log d),
+    *   d being how far they land from it, and next() is O(1)
+    *
+    *   Its position is always right before current(). Changes made by
+    *   anything but the cursor are fine, it just searches from the heads
+    *   once to find its place again
+    * */
+    public final class Cursor {
+
+        private final SkipListSetItem<T>[] finger = newUpdate(maxHeight);
+        private final int[] rank = new int[maxHeight];
+        private T key;                  //where the cursor is, null if before the first element
+        private boolean after;          //true if the cursor is right after key instead of at it
+        private int expectedModCount = modCount;
+
+        private Cursor(){
+            Arrays.fill(finger, heads);
+        }
+
+
+        //Finds the finger again if the list changed without us
+        private void revalidate(){
+            if(expectedModCount == modCount){
+                return;
+            }
+            expectedModCount = modCount;
+            if(key == null){
+                Arrays.fill(finger, heads);
+                Arrays.fill(rank, 0);
+                return;
+            }
+            SkipListSetItem<T> temp = findPredecessors(key, finger, rank).right[0];
+            if(after && temp != null && temp.payload.compareTo(key) == 0){
+                step(temp);
+            }
+        }
+
+        //Moves the finger over item, the one right after it
+        private void step(SkipListSetItem<T> item){
+            int position = rank[0] + 1;
+            for(int level = 0; level < item.right.length; level++){
+                finger[level] = item;
+                rank[level] = position;
+            }
+            key = item.payload;
+            after = true;
+        }
+
+        //Moves the cursor to o, the finger ends up with its predecessors
+        private SkipListSetItem<T> locate(T o){
+            Objects.requireNonNull(o);
+            revalidate();
+            int c = key == null ? 1 : o.compareTo(key);
+            if(c == 0 && after){
+                c = -1; //o is the element we just passed
+            }
+            SkipListSetItem<T> temp = fingerSearch(o, finger, rank, c);
+            key = o;
+            after = false;
+            return temp;
+        }
+
+
+        /*
+        *   Moves to the first element greater or equal than o
+        *
+        *   @return     that element, or null if there is none
+        * */
+        public T seek(T o){
+            return payloadOf(locate(o).right[0]);
+        }
+
+        /*
+        *   Element right after the cursor, null at the end
+        * */
+        public T current(){
+            revalidate();
+            return payloadOf(finger[0].right[0]);
+        }
+
+        /*
+        *   Moves past current()
+        *
+        *   @return     the new current(), null at the end
+        * */
+        public T next(){
+            revalidate();
+            SkipListSetItem<T> temp = finger[0].right[0];
+            if(temp == null){
+                return null;
+            }
+            step(temp);
+            return payloadOf(temp.right[0]);
+        }
+
+        /*
+        *   Position of current() on the list, size() at the end
+        * */
+        public int index(){
+            revalidate();
+            return rank[0];
+        }
+
+        /*
+        *   Moves to o and returns true if it is there
+        * */
+        public boolean contains(T o){
+            SkipListSetItem<T> temp = locate(o).right[0];
+            if(counters != null){
+                counters.record(counters.contains);
+            }
+            return temp != null && temp.payload.compareTo(o) == 0;
+        }
+
+        /*
+        *   Moves to o and adds it if it is not there
+        * */
+        public boolean add(T o){
+            SkipListSetItem<T> temp = locate(o).right[0];
+            if(counters != null){
+                counters.record(counters.add);
+            }
+            if(temp != null && temp.payload.compareTo(o) == 0){
+                return false;
+            }
+            linkNew(newItem(o, setHeight()), finger, rank);
+            expectedModCount = modCount; //our finger is still right
+            return true;
+        }
+
+        /*
+        *   Moves to o and removes it if it is there
+        * */
+        public boolean remove(T o){
+            SkipListSetItem<T> temp = locate(o).right[0];
+            if(counters != null){
+                counters.record(counters.remove);
+            }
+            if(temp == null || temp.payload.compareTo(o) != 0){
+                return false;
+            }
+            unlinkFound(temp, finger);
+            expectedModCount = modCount;
+            return true;
+        }
+    }
+
+
+    /*
+    *   Live view of the elements between two bounds, used by
+    *   subSet, headSet, tailSet and descendingSet
+    *
+    *   It keeps no elements of its own, every call goes to the list,
+    *   so changes on either side are seen by the other.
+    *   Finding where the range starts is one search from the top,
+    *   and its size comes from the link widths
+    * */
+    class SkipListSubSet extends AbstractSet<T> implements NavigableSet<T> {
+
+        final T lo, hi;
+        final boolean fromStart, toEnd;             //true when that side has no bound
+        final boolean loInclusive, hiInclusive;
+        final boolean descending;                   //lo and hi are always in ascending order
+
+        SkipListSubSet(boolean fromStart, T lo, boolean loInclusive,
+                       boolean toEnd, T hi, boolean hiInclusive, boolean descending){
+            if(!fromStart && lo == null || !toEnd && hi == null){
+                throw new NullPointerException();
+            }
+            if(!fromStart && !toEnd && lo.compareTo(hi) > 0){
+                throw new IllegalArgumentException("fromElement > toElement");
+            }
+            this.fromStart = fromStart;
+            this.lo = lo;
+            this.loInclusive = loInclusive;
+            this.toEnd = toEnd;
+            this.hi = hi;
+            this.hiInclusive = hiInclusive;
+            this.descending = descending;
+        }
+
+
+        //Bound checks, always in ascending order
+        boolean tooLow(T t){
+            if(fromStart){
+                return false;
+            }
+            int c = t.compareTo(lo);
+            return c < 0 || (c == 0 && !loInclusive);
+        }
+
+        boolean tooHigh(T t){
+            if(toEnd){
+                return false;
+            }
+            int c = t.compareTo(hi);
+            return c > 0 || (c == 0 && !hiInclusive);
+        }
+
+        boolean inRange(T t){
+            return !tooLow(t) && !tooHigh(t);
+        }
+
+        //A bound of a smaller view has to be inside this one
+        boolean inRange(T t, boolean inclusive){
+            if(inclusive){
+                return inRange(t);
+            }
+            return (fromStart || t.compareTo(lo) >= 0) && (toEnd || t.compareTo(hi) <= 0);
+        }
+
+
+        //First and last items inside the bounds, in ascending order
+        SkipListSetItem<T> lowestItem(){
+            SkipListSetItem<T> item = fromStart ? heads.right[0] : loInclusive ? ceilingItem(lo) : higherItem(lo);
+            return item == null || tooHigh(item.payload) ? null : item;
+        }
+
+        SkipListSetItem<T> highestItem(){
+            SkipListSetItem<T> item = toEnd ? lastItem() : hiInclusive ? floorItem(hi) : lowerItem(hi);
+            return item == null || tooLow(item.payload) ? null : item;
+        }
+
+
+        //Neighbours of t inside the bounds, in ascending order
+        SkipListSetItem<T> ceilingIn(T t){
+            if(tooLow(t)){
+                return lowestItem();
+            }
+            SkipListSetItem<T> item = ceilingItem(t);
+            return item == null || tooHigh(item.payload) ? null : item;
+        }
+
+        SkipListSetItem<T> higherIn(T t){
+            if(tooLow(t)){
+                return lowestItem();
+            }
+            SkipListSetItem<T> item = higherItem(t);
+            return item == null || tooHigh(item.payload) ? null : item;
+        }
+
+        SkipListSetItem<T> floorIn(T t){
+            if(tooHigh(t)){
+                return highestItem();
+            }
+            SkipListSetItem<T> item = floorItem(t);
+            return item == null || tooLow(item.payload) ? null : item;
+        }
+
+        SkipListSetItem<T> lowerIn(T t){
+            if(tooHigh(t)){
+                return highestItem();
+            }
+            SkipListSetItem<T> item = lowerItem(t);
+            return item == null || tooLow(item.payload) ? null : item;
+        }
+
+
+        @Override
+        public int size() {
+            int upper = toEnd ? size : countBelow(hi, hiInclusive);
+            int lower = fromStart ? 0 : countBelow(lo, !loInclusive);
+            return Math.max(upper - lower, 0);
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return lowestItem() == null;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean contains(Object o) {
+            return inRange((T) o) && SkipListSet.this.contains(o);
+        }
+
+        @Override
+        public boolean add(T t) {
+            if(!inRange(t)){
+                throw new IllegalArgumentException("element out of range");
+            }
+            return SkipListSet.this.add(t);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean remove(Object o) {
+            return inRange((T) o) && SkipListSet.this.remove(o);
+        }
+
+        //The whole range goes at once, see removeBetween
+        @Override
+        public void clear() {
+            removeBetween(fromStart ? null : lo, loInclusive, toEnd ? null : hi, hiInclusive);
+        }
+
+        @Override
+        public Iterator<T> iterator() {
+            return itemIterator();
+        }
+
+        /*
+        *   Ascending views split by position like the whole list,
+        *   descending ones keep the default
+        * */
+        @Override
+        public Spliterator<T> spliterator() {
+            if(descending){
+                return NavigableSet.super.spliterator();
+            }
+            SkipListSetItem<T> first = lowestItem();
+            if(first == null){
+                return Spliterators.emptySpliterator();
+            }
+            int index = fromStart ? 1 : countBelow(lo, !loInclusive) + 1;
+            int fence = toEnd ? size + 1 : countBelow(hi, hiInclusive) + 1;
+            return new SkipListSetSpliterator(first, index, fence);
+        }
+
+        //Iterator in the order of this view, it can also return the items
+        SkipListSetIterator itemIterator() {
+            return descending ? new SkipListSetIterator(highestItem(), this, true)
+                              : new SkipListSetIterator(lowestItem(), this, false);
+        }
+
+        @Override
+        public Iterator<T> descendingIterator() {
+            return descending ? new SkipListSetIterator(lowestItem(), this, false)
+                              : new SkipListSetIterator(highestItem(), this, true);
+        }
+
+        @Override
+        public NavigableSet<T> descendingSet() {
+            return new SkipListSubSet(fromStart, lo, loInclusive, toEnd, hi, hiInclusive, !descending);
+        }
+
+
+        @Override
+        public T first() {
+            SkipListSetItem<T> item = descending ? highestItem() : lowestItem();
+            if(item == null){
+                throw new NoSuchElementException();
+            }
+            return item.payload;
+        }
+
+        @Override
+        public T last() {
+            SkipListSetItem<T> item = descending ? lowestItem() : highestItem();
+            if(item == null){
+                throw new NoSuchElementException();
+            }
+            return item.payload;
+        }
+
+        @Override
+        public T lower(T e) {
+            return payloadOf(descending ? higherIn(e) : lowerIn(e));
+        }
+
+        @Override
+        public T floor(T e) {
+            return payloadOf(descending ? ceilingIn(e) : floorIn(e));
+        }
+
+        @Override
+        public T ceiling(T e) {
+            return payloadOf(descending ? floorIn(e) : ceilingIn(e));
+        }
+
+        @Override
+        public T higher(T e) {
+            return payloadOf(descending ? lowerIn(e) : higherIn(e));
+        }
+
+        @Override
+        public T pollFirst() {
+            SkipListSetItem<T> item = descending ? highestItem() : lowestItem();
+            if(item == null){
+                return null;
+            }
+            SkipListSet.this.remove(item.payload);
+            return item.payload;
+        }
+
+        @Override
+        public T pollLast() {
+            SkipListSetItem<T> item = descending ? lowestItem() : highestItem();
+            if(item == null){
+                return null;
+            }
+            SkipListSet.this.remove(item.payload);
+            return item.payload;
+        }
+
+
+        /*
+        *   Views of a view, their bounds have to be inside ours
+        *   On a descending view from is the greater bound
+        * */
+        @Override
+        public NavigableSet<T> subSet(T fromElement, boolean fromInclusive, T toElement, boolean toInclusive) {
+            if(!inRange(fromElement, fromInclusive) || !inRange(toElement, toInclusive)){
+                throw new IllegalArgumentException("element out of range");
+            }
+            if(descending){
+                return new SkipListSubSet(false, toElement, toInclusive, false, fromElement, fromInclusive, true);
+            }
+            return new SkipListSubSet(false, fromElement, fromInclusive, false, toElement, toInclusive, false);
+        }
+
+        @Override
+        public NavigableSet<T> headSet(T toElement, boolean inclusive) {
+            if(!inRange(toElement, inclusive)){
+                throw new IllegalArgumentException("element out of range");
+            }
+            if(descending){
+                return new SkipListSubSet(false, toElement, inclusive, toEnd, hi, hiInclusive, true);
+            }
+            return new SkipListSubSet(fromStart, lo, loInclusive, false, toElement, inclusive, false);
+        }
+
+        @Override
+        public NavigableSet<T> tailSet(T fromElement, boolean inclusive) {
+            if(!inRange(fromElement, inclusive)){
+                throw new IllegalArgumentException("element out of range");
+            }
+            if(descending){
+                return new SkipListSubSet(fromStart, lo, loInclusive, false, fromElement, inclusive, true);
+            }
+            return new SkipListSubSet(false, fromElement, inclusive, toEnd, hi, hiInclusive, false);
+        }
+
+        @Override
+        public SortedSet<T> subSet(T fromElement, T toElement) {
+            return subSet(fromElement, true, toElement, false);
+        }
+
+        @Override
+        public SortedSet<T> headSet(T toElement) {
+            return headSet(toElement, false);
+        }
+
+        @Override
+        public SortedSet<T> tailSet(T fromElement) {
+            return tailSet(fromElement, true);
+        }
+
+        @Override
+        public Comparator<? super T> comparator() {
+            return descending ? Collections.reverseOrder() : null;
+        }
+    }
+
+
+
+
+    /*
+    *   View of the whole list, like subSet with no bounds
+    * */
+    SkipListSubSet wholeRange(){
+        return new SkipListSubSet(true, null, false, true, null, false, false);
+    }
+
+
+    //Elements use their natural order
+    @Override
+    public Comparator<? super T> comparator() {
+        return null;
+    }
+
+
+
+}
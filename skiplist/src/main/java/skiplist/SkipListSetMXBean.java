@@ -0,0 +1,59 @@
+package skiplist;
+
+
+/*
+*   JMX view of a SkipListSet, see SkipListSetMonitor
+*
+*   Attributes are read with the lock of the set, so every thread that
+*   changes a monitored set has to hold that lock while it does.
+*   They come from one snapshot of the statistics that can be up to a
+*   second old, so the numbers of one read agree with each other
+*
+* */
+public interface SkipListSetMXBean {
+
+    int getSize();
+
+    int getHeadHeight();
+
+    boolean isStatisticsEnabled();
+
+    void setStatisticsEnabled(boolean enabled);
+
+    void resetStatistics();
+
+
+    long getContainsCount();
+
+    double getContainsAverageVisited();
+
+    int getContainsMaxVisited();
+
+    double getContainsAverageComparisons();
+
+
+    long getAddCount();
+
+    double getAddAverageVisited();
+
+    int getAddMaxVisited();
+
+    double getAddAverageComparisons();
+
+
+    long getRemoveCount();
+
+    double getRemoveAverageVisited();
+
+    int getRemoveMaxVisited();
+
+    double getRemoveAverageComparisons();
+
+
+    //These walk the whole list
+    long[] getLevelHistogram();
+
+    double[] getExpectedLevelHistogram();
+
+    double getLevelImbalance();
+}
@@ -0,0 +1,190 @@
+package skiplist;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+
+/*
+*   Publishes the statistics of a SkipListSet as an MBean, so they can be
+*   watched and alerted on with any JMX tool
+*
+*   Example:
+*       SkipListSetMonitor.register(set, "orders");
+*   shows up as skiplist:type=SkipListSet,name=orders
+*
+*   The monitor reads the set from the JMX threads with the lock of the
+*   set, so the threads that change the set have to hold that lock too,
+*   like with snapshot()
+*
+*   Every read takes one snapshot of the statistics and the getters share
+*   it for MAX_AGE, so a JMX tool reading all the attributes at once gets
+*   numbers that agree and the level histogram walks the list only once
+*
+* */
+public class SkipListSetMonitor implements SkipListSetMXBean {
+
+
+    private static final long MAX_AGE = TimeUnit.SECONDS.toNanos(1);
+
+
+    private final SkipListSet<?> set;
+    private SkipListStatistics statistics;  //last snapshot, guarded by this
+    private boolean withLevels;             //if it walked the list for the level histogram
+    private long takenAt;
+
+
+    public SkipListSetMonitor(SkipListSet<?> set){
+        this.set = set;
+    }
+
+
+    /*
+    *   Turns statistics on for set and registers its MBean
+    *   on the platform MBean server
+    *
+    *   @return     ObjectName the MBean was registered with
+    * */
+    public static ObjectName register(SkipListSet<?> set, String name) throws JMException {
+        ObjectName objectName = new ObjectName("skiplist:type=SkipListSet,name=" + ObjectName.quote(name));
+        set.setStatisticsEnabled(true);
+        ManagementFactory.getPlatformMBeanServer().registerMBean(new SkipListSetMonitor(set), objectName);
+        return objectName;
+    }
+
+
+    /*
+    *   The last snapshot if it is recent enough and has the levels when
+    *   they are needed, otherwise a new one taken with the lock of the set
+    * */
+    private synchronized SkipListStatistics statistics(boolean levels){
+        long now = System.nanoTime();
+        if(statistics == null || now - takenAt > MAX_AGE || levels && !withLevels){
+            synchronized (set){
+                statistics = set.statistics(levels);
+            }
+            withLevels = levels;
+            takenAt = now;
+        }
+        return statistics;
+    }
+
+    //After a change of the counters the old snapshot is wrong
+    private synchronized void forget(){
+        statistics = null;
+    }
+
+
+    @Override
+    public int getSize() {
+        return statistics(false).getSize();
+    }
+
+    @Override
+    public int getHeadHeight() {
+        return statistics(false).getHeadHeight();
+    }
+
+    @Override
+    public boolean isStatisticsEnabled() {
+        synchronized (set){
+            return set.isStatisticsEnabled();
+        }
+    }
+
+    @Override
+    public void setStatisticsEnabled(boolean enabled) {
+        synchronized (set){
+            set.setStatisticsEnabled(enabled);
+        }
+        forget();
+    }
+
+    @Override
+    public void resetStatistics() {
+        synchronized (set){
+            set.resetStatistics();
+        }
+        forget();
+    }
+
+
+    @Override
+    public long getContainsCount() {
+        return statistics(false).getContains().getCount();
+    }
+
+    @Override
+    public double getContainsAverageVisited() {
+        return statistics(false).getContains().getAverageVisited();
+    }
+
+    @Override
+    public int getContainsMaxVisited() {
+        return statistics(false).getContains().getMaxVisited();
+    }
+
+    @Override
+    public double getContainsAverageComparisons() {
+        return statistics(false).getContains().getAverageComparisons();
+    }
+
+
+    @Override
+    public long getAddCount() {
+        return statistics(false).getAdd().getCount();
+    }
+
+    @Override
+    public double getAddAverageVisited() {
+        return statistics(false).getAdd().getAverageVisited();
+    }
+
+    @Override
+    public int getAddMaxVisited() {
+        return statistics(false).getAdd().getMaxVisited();
+    }
+
+    @Override
+    public double getAddAverageComparisons() {
+        return statistics(false).getAdd().getAverageComparisons();
+    }
+
+
+    @Override
+    public long getRemoveCount() {
+        return statistics(false).getRemove().getCount();
+    }
+
+    @Override
+    public double getRemoveAverageVisited() {
+        return statistics(false).getRemove().getAverageVisited();
+    }
+
+    @Override
+    public int getRemoveMaxVisited() {
+        return statistics(false).getRemove().getMaxVisited();
+    }
+
+    @Override
+    public double getRemoveAverageComparisons() {
+        return statistics(false).getRemove().getAverageComparisons();
+    }
+
+
+    @Override
+    public long[] getLevelHistogram() {
+        return statistics(true).getLevelHistogram();
+    }
+
+    @Override
+    public double[] getExpectedLevelHistogram() {
+        return statistics(true).getExpectedLevelHistogram();
+    }
+
+    @Override
+    public double getLevelImbalance() {
+        return statistics(true).getLevelImbalance();
+    }
+}
@@ -0,0 +1,302 @@
+package skiplist;
+
+import java.util.*;
+
+
+/*
+*   Read only view of a SkipListSet as it was when snapshot() was called
+*
+*   It walks the bottom level of the list following every link as it was
+*   at its version (see SkipListSet.nextAt), so writers can keep changing
+*   the list while it is read. The walk takes the lock of the list for a
+*   batch of elements at a time, the writers have to hold that same lock.
+*
+*   It is meant for iteration, the upper levels are not versioned.
+*   size, first and last of the whole snapshot were taken with it, everything
+*   else, contains and the range views included, is a walk from the start,
+*   O(n) where the list is O(log n)
+*
+*   Close it when done so the list can drop the links it keeps for it,
+*   if nobody does they are dropped after it is garbage collected
+*
+* */
+public final class SkipListSnapshot<T extends Comparable<T>> extends AbstractSet<T> implements SortedSet<T>, AutoCloseable {
+
+
+    private static final int BATCH = 256;  //elements read with every lock of the list
+
+
+    /*
+    *   What the list was when the snapshot was taken, shared by all its views
+    *
+    *   The list only keeps a weak reference to it, so it knows when
+    *   nobody can read this version anymore
+    * */
+    static final class Version<T extends Comparable<T>> {
+        final long version;
+        final SkipListSet.SkipListSetItem<T> heads;
+        final SkipListSet.SkipListSetItem<T> last;      //null if it was empty
+        final int size;
+        boolean closed;                     //only changed with the lock of the list
+
+
+        Version(long version, SkipListSet.SkipListSetItem<T> heads, SkipListSet.SkipListSetItem<T> last, int size){
+            this.version = version;
+            this.heads = heads;
+            this.last = last;
+            this.size = size;
+        }
+    }
+
+
+    private final SkipListSet<T> set;
+    private final Version<T> taken;
+    private final T lo, hi;         //lo inclusive and hi exclusive, null if this view has no such bound
+
+
+    SkipListSnapshot(SkipListSet<T> set, Version<T> taken){
+        this(set, taken, null, null);
+    }
+
+    private SkipListSnapshot(SkipListSet<T> set, Version<T> taken, T lo, T hi){
+        this.set = set;
+        this.taken = taken;
+        this.lo = lo;
+        this.hi = hi;
+    }
+
+
+    private boolean bounded(){
+        return lo != null || hi != null;
+    }
+
+
+    @Override
+    public int size() {
+        if(!bounded()){
+            synchronized (set){
+                checkOpen();
+            }
+            return taken.size;
+        }
+        int size = 0;
+        for(Iterator<T> it = iterator(); it.hasNext(); it.next()){
+            size++;
+        }
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return !iterator().hasNext();
+    }
+
+
+    /*
+    *   Returns true if the snapshot has o, walking until an element not smaller, O(n)
+    * */
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean contains(Object o) {
+        T t = (T) Objects.requireNonNull(o);
+        for(Iterator<T> it = iterator(); it.hasNext();){
+            int c = it.next().compareTo(t);
+            if(c >= 0){
+                return c == 0;
+            }
+        }
+        return false;
+    }
+
+
+    @Override
+    public T first() {
+        Iterator<T> it = iterator();
+        if(!it.hasNext()){
+            throw new NoSuchElementException();
+        }
+        return it.next();
+    }
+
+    @Override
+    public T last() {
+        if(!bounded()){
+            synchronized (set){
+                checkOpen();
+            }
+            if(taken.last == null){
+                throw new NoSuchElementException();
+            }
+            return taken.last.payload;
+        }
+        Iterator<T> it = iterator();
+        if(!it.hasNext()){
+            throw new NoSuchElementException();
+        }
+        T last = it.next();
+        while (it.hasNext()){
+            last = it.next();
+        }
+        return last;
+    }
+
+
+    /*
+    *   Views of the same version, like on a TreeSet their bounds have to be inside ours
+    * */
+    @Override
+    public SortedSet<T> subSet(T fromElement, T toElement) {
+        checkInRange(fromElement);
+        checkInRange(toElement);
+        if(fromElement.compareTo(toElement) > 0){
+            throw new IllegalArgumentException("fromElement > toElement");
+        }
+        return new SkipListSnapshot<>(set, taken, fromElement, toElement);
+    }
+
+    @Override
+    public SortedSet<T> headSet(T toElement) {
+        checkInRange(toElement);
+        return new SkipListSnapshot<>(set, taken, lo, toElement);
+    }
+
+    @Override
+    public SortedSet<T> tailSet(T fromElement) {
+        checkInRange(fromElement);
+        return new SkipListSnapshot<>(set, taken, fromElement, hi);
+    }
+
+    private void checkInRange(T t){
+        Objects.requireNonNull(t);
+        if(lo != null && t.compareTo(lo) < 0 || hi != null && t.compareTo(hi) > 0){
+            throw new IllegalArgumentException("element out of range");
+        }
+    }
+
+
+    @Override
+    public Comparator<? super T> comparator() {
+        return null; //natural order
+    }
+
+
+    /*
+    *   Closes the snapshot and all its views, reading them afterwards
+    *   throws an IllegalStateException
+    * */
+    @Override
+    public void close() {
+        synchronized (set){
+            if(!taken.closed){
+                taken.closed = true;
+                set.reclaim();
+            }
+        }
+    }
+
+    //Only called with the lock of the list
+    private void checkOpen(){
+        if(taken.closed){
+            throw new IllegalStateException("snapshot closed");
+        }
+    }
+
+
+    @Override
+    public Iterator<T> iterator() {
+        return new SnapshotIterator();
+    }
+
+
+    /*
+    *   Reads the elements of the view in batches, every batch under the
+    *   lock of the list, and hands them out from the buffer
+    *
+    *   Elements below lo are skipped, a batch stops after BATCH of
+    *   them too, so a writer never waits for more than one batch
+    * */
+    private final class SnapshotIterator implements Iterator<T> {
+
+        private final Object[] buffer = new Object[BATCH];
+        private int count, next;            //buffer has count elements, next is the one to return
+        private SkipListSet.SkipListSetItem<T> position = taken.heads;  //last item we read
+        private boolean done;
+
+
+        private void fill(){
+            synchronized (set){
+                checkOpen();
+                count = 0;
+                next = 0;
+                SkipListSet.SkipListSetItem<T> temp = position;
+                for(int steps = 0; steps < BATCH; steps++){
+                    temp = SkipListSet.nextAt(temp, taken.version);
+                    if(temp == null || hi != null && temp.payload.compareTo(hi) >= 0){
+                        done = true;
+                        break;
+                    }
+                    if(lo == null || temp.payload.compareTo(lo) >= 0){
+                        buffer[count++] = temp.payload;
+                    }
+                    position = temp;
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next == count && !done){
+                fill();
+            }
+            return next < count;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T next() {
+            if(!hasNext()){
+                throw new NoSuchElementException();
+            }
+            T t = (T) buffer[next];
+            buffer[next++] = null;
+            return t;
+        }
+    }
+
+
+    //It is read only
+    @Override
+    public boolean add(T t) {
+        throw new UnsupportedOperationException("snapshot");
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        throw new UnsupportedOperationException("snapshot");
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends T> c) {
+        throw new UnsupportedOperationException("snapshot");
+    }
+
+    @Override
+    public boolean removeAll(Collection<?> c) {
+        throw new UnsupportedOperationException("snapshot");
+    }
+
+    @Override
+    public boolean retainAll(Collection<?> c) {
+        throw new UnsupportedOperationException("snapshot");
+    }
+
+    @Override
+    public boolean removeIf(java.util.function.Predicate<? super T> filter) {
+        throw new UnsupportedOperationException("snapshot");
+    }
+
+    @Override
+    public void clear() {
+        throw new UnsupportedOperationException("snapshot");
+    }
+}
@@ -0,0 +1,168 @@
+package skiplist;
+
+import java.util.Arrays;
+
+
+/*
+*   Snapshot of how a SkipListSet is shaped and how its searches behave,
+*   returned by SkipListSet.statistics()
+*
+*   Search numbers are only collected while statistics are enabled on the
+*   set, the shape (head height and elements per level) is always there
+*
+*   A healthy list has about half as many elements on each level as on the
+*   one below it, getLevelImbalance() tells how far it is from that
+*
+* */
+public final class SkipListStatistics {
+
+
+    /*
+    *   Numbers of one kind of operation
+    *   visited counts every item a search stepped on plus every level it went down,
+    *   comparisons counts every compareTo the search made
+    * */
+    public static final class Operation {
+
+        private final long count;
+        private final long totalVisited;
+        private final int maxVisited;
+        private final long totalComparisons;
+        private final int maxComparisons;
+
+        Operation(long count, long totalVisited, int maxVisited, long totalComparisons, int maxComparisons){
+            this.count = count;
+            this.totalVisited = totalVisited;
+            this.maxVisited = maxVisited;
+            this.totalComparisons = totalComparisons;
+            this.maxComparisons = maxComparisons;
+        }
+
+        public long getCount(){
+            return count;
+        }
+
+        public double getAverageVisited(){
+            return count == 0 ? 0 : (double) totalVisited / count;
+        }
+
+        public int getMaxVisited(){
+            return maxVisited;
+        }
+
+        public double getAverageComparisons(){
+            return count == 0 ? 0 : (double) totalComparisons / count;
+        }
+
+        public int getMaxComparisons(){
+            return maxComparisons;
+        }
+
+        @Override
+        public String toString(){
+            return String.format("count=%d visited(avg=%.2f, max=%d) comparisons(avg=%.2f, max=%d)",
+                    count, getAverageVisited(), maxVisited, getAverageComparisons(), maxComparisons);
+        }
+    }
+
+
+    private final boolean enabled;
+    private final int size;
+    private final int headHeight;
+    private final Operation contains, add, remove;
+    private final long[] levelHistogram;
+    private final double promotion;
+
+
+    SkipListStatistics(boolean enabled, int size, int headHeight, Operation contains, Operation add,
+                       Operation remove, long[] levelHistogram, double promotion){
+        this.enabled = enabled;
+        this.size = size;
+        this.headHeight = headHeight;
+        this.contains = contains;
+        this.add = add;
+        this.remove = remove;
+        this.levelHistogram = levelHistogram;
+        this.promotion = promotion;
+    }
+
+
+    //True if the search numbers were being collected
+    public boolean isEnabled(){
+        return enabled;
+    }
+
+    public int getSize(){
+        return size;
+    }
+
+    //How many levels the heads have
+    public int getHeadHeight(){
+        return headHeight;
+    }
+
+    public Operation getContains(){
+        return contains;
+    }
+
+    public Operation getAdd(){
+        return add;
+    }
+
+    public Operation getRemove(){
+        return remove;
+    }
+
+
+    /*
+    *   How many elements are on each level, the bottom level first
+    * */
+    public long[] getLevelHistogram(){
+        return levelHistogram.clone();
+    }
+
+
+    /*
+    *   How many elements each level should have, every level
+    *   keeps the promotion probability of the level below
+    * */
+    public double[] getExpectedLevelHistogram(){
+        double[] expected = new double[levelHistogram.length];
+        double onLevel = size;
+        for(int level = 0; level < expected.length; level++){
+            expected[level] = onLevel;
+            onLevel *= promotion;
+        }
+        return expected;
+    }
+
+
+    /*
+    *   Largest relative difference between the elements on a level and the
+    *   expected ones, only for levels that should have at least 16 elements
+    *   so small levels don't make noise.
+    *   0 is perfect, values near 1 mean searches are close to a linear walk
+    *   and it is time for reBalance()
+    * */
+    public double getLevelImbalance(){
+        double[] expected = getExpectedLevelHistogram();
+        double imbalance = 0;
+        for(int level = 1; level < expected.length; level++){
+            if(expected[level] >= 16){
+                imbalance = Math.max(imbalance, Math.abs(levelHistogram[level] - expected[level]) / expected[level]);
+            }
+        }
+        return imbalance;
+    }
+
+
+    @Override
+    public String toString(){
+        return "SkipListStatistics{size=" + size
+                + ", headHeight=" + headHeight
+                + ", levels=" + Arrays.toString(levelHistogram)
+                + ", imbalance=" + String.format("%.3f", getLevelImbalance())
+                + (enabled ? ", contains[" + contains + "], add[" + add + "], remove[" + remove + "]" : "")
+                + "}";
+    }
+}
@@ -0,0 +1,739 @@
+package skiplist;
+
+import java.util.*;
+import java.util.function.Consumer;
+
+
+/*
+*   This Object represent an unrolled SkipList sorted set
+*
+*   The bottom level is a list of blocks instead of one item per element,
+*   every block keeps up to blockSize elements in a sorted array. Only the
+*   blocks are linked, the first element of a block is the one the upper
+*   levels compare against, so a tower is one per block instead of one
+*   per element.
+*
+*   A search goes down the towers to the last block whose first element
+*   is not greater than the one we want, and then does a binary search
+*   inside it. Iteration, toArray and hashCode go through arrays.
+*
+*   A full block splits in two halves, and a block under a quarter full
+*   borrows from the next one or merges with it
+*
+* */
+public class UnrolledSkipListSet <T extends Comparable<T>> extends AbstractSet<T> implements SortedSet<T> {
+
+
+    static final int MAX_HEIGHT = 32;           //No tower can be taller than this
+    static final int DEFAULT_BLOCK_SIZE = 32;   //Elements of a full block
+
+    private final int blockSize;
+    private final LevelGenerator levelGenerator = LevelGenerator.geometric();    //Heights of new blocks
+    private int size = 0;           //keeps track of how many elements are on the SkipList
+    private int levels = 1;         //How many levels of the heads are in use
+    private int modCount = 0;       //Counts every change of structure, so iterators can notice them
+
+    private final Block<T> heads = new Block<>(0, MAX_HEIGHT);         //This is always the starting point, it has no elements
+    private final Block<T>[] update = newBlocks(MAX_HEIGHT);           //Reused by add and remove so they don't allocate
+
+
+    /*
+    *   Constructor that returns an empty SkipList with blocks of DEFAULT_BLOCK_SIZE
+    *
+    * */
+    public UnrolledSkipListSet(){
+        this(DEFAULT_BLOCK_SIZE);
+    }
+
+
+    /*
+    *   Constructor that returns an empty SkipList with blocks of blockSize elements,
+    *   16 to 64 fit a few cache lines of references
+    *
+    *   @param: int blockSize
+    * */
+    public UnrolledSkipListSet(int blockSize){
+        if(blockSize < 4){
+            throw new IllegalArgumentException("blockSize must be at least 4: " + blockSize);
+        }
+        this.blockSize = blockSize;
+    }
+
+
+    /*
+    *   Constructor that returns a populated SkipList Set with blocks of
+    *   DEFAULT_BLOCK_SIZE, its blocks are built three quarters full in one pass
+    *
+    *   @param: A generic Collection
+    * */
+    public UnrolledSkipListSet(Collection<? extends T> c){
+        this(DEFAULT_BLOCK_SIZE, c);
+    }
+
+
+    /*
+    *   Same as above with blocks of blockSize elements
+    *
+    *   @param: int blockSize
+    *   @param: A generic Collection
+    * */
+    public UnrolledSkipListSet(int blockSize, Collection<? extends T> c){
+        this(blockSize);
+        Object[] sorted = new SkipListSet<T>(c).toArray();
+        int fill = blockSize * 3 / 4;
+
+        Block<T>[] last = newBlocks(MAX_HEIGHT);
+        Arrays.fill(last, heads);
+        for(int from = 0; from < sorted.length; from += fill){
+            Block<T> block = new Block<>(blockSize, setHeight());
+            block.count = Math.min(fill, sorted.length - from);
+            System.arraycopy(sorted, from, block.keys, 0, block.count);
+            for(int level = 0; level < block.right.length; level++){
+                last[level].right[level] = block;
+                last[level] = block;
+            }
+            levels = Math.max(levels, block.right.length);
+        }
+        size = sorted.length;
+    }
+
+
+    @SuppressWarnings("unchecked")
+    private static <T extends Comparable<T>> Block<T>[] newBlocks(int length){
+        return (Block<T>[]) new Block[length];
+    }
+
+
+    /*
+    *   Height of a new block, each level has 50% chance of being added,
+    *   up to MAX_HEIGHT
+    *
+    *   @return     int height
+    *
+    * */
+    private int setHeight(){
+        return levelGenerator.nextHeight(MAX_HEIGHT);
+    }
+
+
+    /*
+    *   Goes down to the last block whose first element is smaller than t,
+    *   or also equal if not strict, saving the last block of every level
+    *   in update if it is not null
+    *
+    *   @return     that block, the heads if t goes before every block
+    *
+    * */
+    private Block<T> findBlock(T t, boolean strict, Block<T>[] update){
+        Block<T> temp = heads;
+        int limit = strict ? -1 : 0;   //we go right while the first element compared to t is at most limit
+
+        for(int level = levels - 1; level >= 0; level--){
+            Block<T> next;
+            while ((next = temp.right[level]) != null && next.first().compareTo(t) <= limit){
+                temp = next;
+            }
+            if(update != null){
+                update[level] = temp;
+            }
+        }
+        return temp;
+    }
+
+
+    //Position of t in block, or -(where it would go) - 1
+    private static int indexOf(Block<?> block, Object t){
+        return Arrays.binarySearch(block.keys, 0, block.count, t);
+    }
+
+
+    /*
+    *   Returns true if the set has o
+    * */
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean contains(Object o) {
+        T t = (T) Objects.requireNonNull(o);
+        Block<T> block = findBlock(t, false, null);
+        return block != heads && indexOf(block, t) >= 0;
+    }
+
+
+    /*
+    *   We add t to the block it belongs to, false if it was already there
+    *
+    *   Elements smaller than every other one go to the first block,
+    *   a full block is split before we add to it
+    * */
+    @Override
+    public boolean add(T t) {
+        Objects.requireNonNull(t);
+        Block<T> block = findBlock(t, false, update);
+
+        if(block == heads){
+            block = heads.right[0];
+            if(block == null){ //The first block of the list
+                block = new Block<>(blockSize, 1);
+                block.keys[block.count++] = t;
+                heads.right[0] = block;
+                size++;
+                modCount++;
+                return true;
+            }
+            for(int level = 0; level < block.right.length; level++){
+                update[level] = block; //t becomes its first element, it stays the last block on its levels
+            }
+        }
+
+        int index = indexOf(block, t);
+        if(index >= 0){
+            return false; //No duplicates!
+        }
+        index = -index - 1;
+
+        if(block.count == blockSize){
+            //Appends after the last element start a new block, so ascending keys leave full blocks behind
+            Block<T> upper = split(block, index == blockSize ? blockSize : blockSize / 2);
+            if(index > block.count || block.count == blockSize){
+                index -= block.count;
+                block = upper;
+            }
+        }
+        System.arraycopy(block.keys, index, block.keys, index + 1, block.count - index);
+        block.keys[index] = t;
+        block.count++;
+
+        size++;
+        modCount++;
+        return true;
+    }
+
+
+    /*
+    *   Moves the elements of block from half on to a new block right after it
+    *
+    *   update has the last block of every level up to block, which
+    *   are also the ones right before the new block
+    * */
+    private Block<T> split(Block<T> block, int half){
+        Block<T> upper = new Block<>(blockSize, setHeight());
+        upper.count = block.count - half;
+        System.arraycopy(block.keys, half, upper.keys, 0, upper.count);
+        Arrays.fill(block.keys, half, block.count, null);
+        block.count = half;
+
+        while (levels < upper.right.length){ //The heads are the predecessor on new levels
+            update[levels++] = heads;
+        }
+        for(int level = 0; level < upper.right.length; level++){
+            upper.right[level] = update[level].right[level];
+            update[level].right[level] = upper;
+        }
+        return upper;
+    }
+
+
+    /*
+    *   Remove o from our List, false if it was not there
+    *
+    *   A block left under a quarter full evens out with the next one
+    * */
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean remove(Object o) {
+        T t = (T) Objects.requireNonNull(o);
+        Block<T> block = findBlock(t, false, null);
+        if(block == heads){
+            return false;
+        }
+        int index = indexOf(block, t);
+        if(index < 0){
+            return false;
+        }
+
+        if(block.count == 1){
+            unlink(block, t); //t was its only element
+        }else{
+            block.count--;
+            System.arraycopy(block.keys, index + 1, block.keys, index, block.count - index);
+            block.keys[block.count] = null;
+            if(block.count < blockSize / 4){
+                refill(block);
+            }
+        }
+
+        size--;
+        modCount++;
+        return true;
+    }
+
+
+    /*
+    *   block is too empty, it takes every element of the next block
+    *   if they fit in three quarters of a block, or half the difference
+    *   between them if they don't. The last block can stay small
+    * */
+    private void refill(Block<T> block){
+        Block<T> next = block.right[0];
+        if(next == null){
+            return;
+        }
+
+        int moved;
+        if(block.count + next.count <= blockSize * 3 / 4){
+            moved = next.count;
+            unlink(next, next.first());
+        }else{
+            moved = (next.count - block.count) / 2;
+        }
+
+        System.arraycopy(next.keys, 0, block.keys, block.count, moved);
+        block.count += moved;
+        next.count -= moved;
+        System.arraycopy(next.keys, moved, next.keys, 0, next.count);
+        Arrays.fill(next.keys, next.count, next.count + moved, null);
+    }
+
+
+    /*
+    *   Takes block out of every level, first is the first element it
+    *   had, the blocks before it are the last ones smaller than that
+    * */
+    private void unlink(Block<T> block, T first){
+        findBlock(first, true, update);
+        for(int level = 0; level < block.right.length; level++){
+            update[level].right[level] = block.right[level];
+        }
+        while (levels > 1 && heads.right[levels - 1] == null){ //Drop empty levels
+            levels--;
+        }
+    }
+
+
+    /*
+    *   returns First element on the list
+    * */
+    @Override
+    public T first() {
+        Block<T> block = heads.right[0];
+        if(block == null){
+            throw new NoSuchElementException();
+        }
+        return block.first();
+    }
+
+
+    /*
+    *   returns last element on the list
+    *   We go all the way right on every level and then down
+    * */
+    @Override
+    public T last() {
+        Block<T> temp = heads;
+        for(int level = levels - 1; level >= 0; level--){
+            while (temp.right[level] != null){
+                temp = temp.right[level];
+            }
+        }
+        if(temp == heads){
+            throw new NoSuchElementException();
+        }
+        return temp.at(temp.count - 1);
+    }
+
+
+    /*
+    *   Same as the NavigableSet methods, null if there is no such element
+    * */
+    public T ceiling(T e) {
+        return higherOrEqual(Objects.requireNonNull(e), true);
+    }
+
+    public T higher(T e) {
+        return higherOrEqual(Objects.requireNonNull(e), false);
+    }
+
+    public T floor(T e) {
+        Block<T> block = findBlock(Objects.requireNonNull(e), false, null);
+        if(block == heads){
+            return null;
+        }
+        int index = indexOf(block, e);
+        return block.at(index >= 0 ? index : -index - 2); //its first element is not greater than e
+    }
+
+    public T lower(T e) {
+        Block<T> block = findBlock(Objects.requireNonNull(e), true, null);
+        if(block == heads){
+            return null;
+        }
+        int index = indexOf(block, e);
+        return block.at((index >= 0 ? index : -index - 1) - 1); //its first element is smaller than e
+    }
+
+    private T higherOrEqual(T e, boolean inclusive){
+        Block<T> block = findBlock(e, false, null);
+        int index = 0;
+        if(block == heads){
+            block = heads.right[0];
+        }else{
+            index = indexOf(block, e);
+            index = index >= 0 ? (inclusive ? index : index + 1) : -index - 1;
+            if(index == block.count){
+                block = block.right[0];
+                index = 0;
+            }
+        }
+        return block == null ? null : block.at(index);
+    }
+
+
+    /*
+    *   Return the size of the list
+    * */
+    @Override
+    public int size() {
+        return size;
+    }
+
+
+    /*
+    *   How many blocks the bottom level has
+    * */
+    public int blockCount(){
+        int blocks = 0;
+        for(Block<T> block = heads.right[0]; block != null; block = block.right[0]){
+            blocks++;
+        }
+        return blocks;
+    }
+
+
+    /*
+    *   Clear our SkipList
+    * */
+    @Override
+    public void clear() {
+        Arrays.fill(heads.right, null);
+        levels = 1;
+        size = 0;
+        modCount++;
+    }
+
+
+    /*
+    *   Whole set operations, one array copy or loop per block
+    * */
+    @Override
+    public Object[] toArray() {
+        Object[] elements = new Object[size];
+        int i = 0;
+        for(Block<T> block = heads.right[0]; block != null; block = block.right[0]){
+            System.arraycopy(block.keys, 0, elements, i, block.count);
+            i += block.count;
+        }
+        return elements;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <E> E[] toArray(E[] a) {
+        Object[] elements = toArray();
+        if(a.length < size){
+            a = (E[]) java.lang.reflect.Array.newInstance(a.getClass().getComponentType(), size);
+        }
+        System.arraycopy(elements, 0, a, 0, size);
+        if(a.length > size){
+            a[size] = null;
+        }
+        return a;
+    }
+
+    @Override
+    public void forEach(Consumer<? super T> action) {
+        Objects.requireNonNull(action);
+        int expectedModCount = modCount;
+        for(Block<T> block = heads.right[0]; block != null; block = block.right[0]){
+            for(int i = 0; i < block.count; i++){
+                action.accept(block.at(i));
+            }
+            if(modCount != expectedModCount){
+                throw new ConcurrentModificationException();
+            }
+        }
+    }
+
+    @Override
+    public int hashCode() {
+        int hashCode = 0;
+        for(Block<T> block = heads.right[0]; block != null; block = block.right[0]){
+            Object[] keys = block.keys;
+            for(int i = 0; i < block.count; i++){
+                hashCode += keys[i].hashCode();
+            }
+        }
+        return hashCode;
+    }
+
+
+    @Override
+    public Comparator<? super T> comparator() {
+        return null; //natural order
+    }
+
+
+    /*
+    *   Return our SkipList iterator
+    * */
+    @Override
+    public Iterator<T> iterator() {
+        return new UnrolledIterator(null, true, null);
+    }
+
+
+    /*
+    *   Views of a range of the set, like on a TreeSet their bounds have to be inside ours
+    * */
+    @Override
+    public SortedSet<T> subSet(T fromElement, T toElement) {
+        return new Range(null, null).subSet(fromElement, toElement);
+    }
+
+    @Override
+    public SortedSet<T> headSet(T toElement) {
+        return new Range(null, null).headSet(toElement);
+    }
+
+    @Override
+    public SortedSet<T> tailSet(T fromElement) {
+        return new Range(null, null).tailSet(fromElement);
+    }
+
+
+    /*
+    *   Block of the bottom level, keys has its count elements in order
+    *   right has the next block on each level of its tower
+    * */
+    static final class Block<T extends Comparable<T>> {
+        final Object[] keys;
+        int count;
+        final Block<T>[] right;
+
+        Block(int capacity, int height){
+            this.keys = new Object[capacity];
+            this.right = newBlocks(height);
+        }
+
+        @SuppressWarnings("unchecked")
+        T at(int index){
+            return (T) keys[index];
+        }
+
+        T first(){
+            return at(0);
+        }
+    }
+
+
+    /*
+    *   Iterator that walks the blocks, from the first element not smaller
+    *   than lo (greater if not inclusive) up to the last one smaller than hi
+    *
+    *   A remove can split or merge blocks, so after it we find our place again
+    * */
+    private class UnrolledIterator implements Iterator<T> {
+
+        private final T hi;
+        private Block<T> block;         //where the next element is, null at the end
+        private int index;
+        private T lastReturned;
+        private int expectedModCount = modCount;
+
+
+        UnrolledIterator(T lo, boolean inclusive, T hi){
+            this.hi = hi;
+            seek(lo, inclusive);
+        }
+
+
+        private void seek(T lo, boolean inclusive){
+            index = 0;
+            if(lo == null){
+                block = heads.right[0];
+            }else{
+                block = findBlock(lo, false, null);
+                if(block == heads){
+                    block = heads.right[0];
+                }else{
+                    int found = indexOf(block, lo);
+                    index = found >= 0 ? (inclusive ? found : found + 1) : -found - 1;
+                    if(index == block.count){
+                        block = block.right[0];
+                        index = 0;
+                    }
+                }
+            }
+            if(block != null && hi != null && block.at(index).compareTo(hi) >= 0){
+                block = null;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return block != null;
+        }
+
+        @Override
+        public T next() {
+            if(modCount != expectedModCount){
+                throw new ConcurrentModificationException();
+            }
+            if(block == null){
+                throw new NoSuchElementException();
+            }
+            lastReturned = block.at(index++);
+            if(index == block.count){
+                block = block.right[0];
+                index = 0;
+            }
+            if(block != null && hi != null && block.at(index).compareTo(hi) >= 0){
+                block = null;
+            }
+            return lastReturned;
+        }
+
+        @Override
+        public void remove() {
+            if(lastReturned == null){
+                throw new IllegalStateException();
+            }
+            if(modCount != expectedModCount){
+                throw new ConcurrentModificationException();
+            }
+            UnrolledSkipListSet.this.remove(lastReturned);
+            seek(lastReturned, false);
+            lastReturned = null;
+            expectedModCount = modCount;
+        }
+    }
+
+
+    /*
+    *   Elements from lo (inclusive) to hi (exclusive) of the set,
+    *   null if there is no bound on that side
+    *
+    *   Writes go to the set, size walks the range
+    * */
+    private final class Range extends AbstractSet<T> implements SortedSet<T> {
+
+        private final T lo, hi;
+
+
+        Range(T lo, T hi){
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+
+        private boolean inRange(T t){
+            return (lo == null || t.compareTo(lo) >= 0) && (hi == null || t.compareTo(hi) < 0);
+        }
+
+        private void checkInRange(T t){
+            Objects.requireNonNull(t);
+            if(lo != null && t.compareTo(lo) < 0 || hi != null && t.compareTo(hi) > 0){
+                throw new IllegalArgumentException("element out of range");
+            }
+        }
+
+
+        @Override
+        public int size() {
+            int size = 0;
+            for(Iterator<T> it = iterator(); it.hasNext(); it.next()){
+                size++;
+            }
+            return size;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return !iterator().hasNext();
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean contains(Object o) {
+            T t = (T) Objects.requireNonNull(o);
+            return inRange(t) && UnrolledSkipListSet.this.contains(t);
+        }
+
+        @Override
+        public boolean add(T t) {
+            if(!inRange(Objects.requireNonNull(t))){
+                throw new IllegalArgumentException("element out of range");
+            }
+            return UnrolledSkipListSet.this.add(t);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean remove(Object o) {
+            T t = (T) Objects.requireNonNull(o);
+            return inRange(t) && UnrolledSkipListSet.this.remove(t);
+        }
+
+
+        @Override
+        public T first() {
+            Iterator<T> it = iterator();
+            if(!it.hasNext()){
+                throw new NoSuchElementException();
+            }
+            return it.next();
+        }
+
+        @Override
+        public T last() {
+            T last = hi == null ? UnrolledSkipListSet.this.last() : lower(hi);
+            if(last == null || !inRange(last)){
+                throw new NoSuchElementException();
+            }
+            return last;
+        }
+
+
+        @Override
+        public SortedSet<T> subSet(T fromElement, T toElement) {
+            checkInRange(fromElement);
+            checkInRange(toElement);
+            if(fromElement.compareTo(toElement) > 0){
+                throw new IllegalArgumentException("fromElement > toElement");
+            }
+            return new Range(fromElement, toElement);
+        }
+
+        @Override
+        public SortedSet<T> headSet(T toElement) {
+            checkInRange(toElement);
+            return new Range(lo, toElement);
+        }
+
+        @Override
+        public SortedSet<T> tailSet(T fromElement) {
+            checkInRange(fromElement);
+            return new Range(fromElement, hi);
+        }
+
+
+        @Override
+        public Comparator<? super T> comparator() {
+            return null;
+        }
+
+        @Override
+        public Iterator<T> iterator() {
+            return new UnrolledIterator(lo, true, hi);
+        }
+    }
+}
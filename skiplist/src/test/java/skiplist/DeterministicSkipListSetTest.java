@@ -0,0 +1,127 @@
+package skiplist;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+
+import org.junit.jupiter.api.Test;
+
+
+/*
+*   Adds and removes keys in ascending, descending and random order,
+*   the height has to stay at most log base 2 of the size plus one and
+*   the set has to have the same keys as a TreeSet
+*
+* */
+class DeterministicSkipListSetTest {
+
+
+    private static final int SIZE = 100000;
+    private static final int CHECK_EVERY = 997;     //height after every change, contents this often
+
+
+    @Test
+    void ascending(){
+        check(keys(false), keys(false));
+    }
+
+    @Test
+    void descending(){
+        check(reversed(keys(false)), reversed(keys(false)));
+    }
+
+    @Test
+    void ascendingAddDescendingRemove(){
+        check(keys(false), reversed(keys(false)));
+    }
+
+    @Test
+    void random(){
+        check(keys(true), keys(true));
+    }
+
+
+    @Test
+    void mixed(){
+        DeterministicSkipListSet<Integer> set = new DeterministicSkipListSet<>();
+        TreeSet<Integer> model = new TreeSet<>();
+        Random random = new Random(7);
+        for(int i = 0; i < 4 * SIZE; i++){
+            int key = random.nextInt(SIZE / 4);
+            if(random.nextInt(3) == 0){
+                assertEquals(model.remove(key), set.remove(key), "remove " + key);
+            }else{
+                assertEquals(model.add(key), set.add(key), "add " + key);
+            }
+            assertHeight(set);
+            if(i % CHECK_EVERY == 0){
+                assertSame(model, set);
+            }
+        }
+        assertSame(model, set);
+    }
+
+
+    //Adds every key of added, then removes them in the order of removed
+    private static void check(List<Integer> added, List<Integer> removed){
+        DeterministicSkipListSet<Integer> set = new DeterministicSkipListSet<>();
+        TreeSet<Integer> model = new TreeSet<>();
+        for(int i = 0; i < added.size(); i++){
+            int key = added.get(i);
+            assertTrue(set.add(key), "add " + key);
+            assertFalse(set.add(key), "add again " + key);
+            model.add(key);
+            assertHeight(set);
+            if(i % CHECK_EVERY == 0){
+                assertSame(model, set);
+            }
+        }
+        assertSame(model, set);
+
+        for(int i = 0; i < removed.size(); i++){
+            int key = removed.get(i);
+            assertTrue(set.remove(key), "remove " + key);
+            assertFalse(set.remove(key), "remove again " + key);
+            model.remove(key);
+            assertHeight(set);
+            if(i % CHECK_EVERY == 0){
+                assertSame(model, set);
+            }
+        }
+        assertTrue(set.isEmpty());
+        assertEquals(0, set.height());
+    }
+
+
+    private static void assertHeight(DeterministicSkipListSet<Integer> set){
+        int size = set.size();
+        int log2 = size == 0 ? 0 : 31 - Integer.numberOfLeadingZeros(size);
+        assertTrue(set.height() <= log2 + 1, "height " + set.height() + " with " + size + " keys");
+    }
+
+    private static void assertSame(TreeSet<Integer> model, DeterministicSkipListSet<Integer> set){
+        assertEquals(model.size(), set.size());
+        assertEquals(new ArrayList<>(model), new ArrayList<>(set));
+        if(!model.isEmpty()){
+            assertEquals(model.first(), set.first());
+            assertEquals(model.last(), set.last());
+        }
+    }
+
+
+    private static List<Integer> keys(boolean shuffled){
+        List<Integer> keys = new ArrayList<>();
+        for(int i = 0; i < SIZE; i++){
+            keys.add(2 * i);
+        }
+        if(shuffled){
+            Collections.shuffle(keys, new Random(SIZE));
+        }
+        return keys;
+    }
+
+    private static List<Integer> reversed(List<Integer> keys){
+        Collections.reverse(keys);
+        return keys;
+    }
+}
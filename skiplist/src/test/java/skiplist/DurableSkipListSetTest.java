@@ -0,0 +1,175 @@
+package skiplist;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.*;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+
+/*
+*   Recovery of a DurableSkipListSet from what a crash can leave in its directory
+*
+*   A crash is a set that is dropped without close(), or files changed
+*   the way a process that died halfway would leave them
+*
+* */
+class DurableSkipListSetTest {
+
+
+    @TempDir
+    Path directory;
+
+
+    private DurableSkipListSet<Long> open() throws IOException {
+        return new DurableSkipListSet<>(directory, DurableSkipListSet.Codec.longs(), 1, 0);
+    }
+
+    private List<Path> logs() throws IOException {
+        try(Stream<Path> files = Files.list(directory)){
+            return files.filter(file -> file.getFileName().toString().startsWith("log.")).sorted().toList();
+        }
+    }
+
+
+    @Test
+    void reopenAfterSyncWithoutClose() throws IOException {
+        TreeSet<Long> model = new TreeSet<>();
+        DurableSkipListSet<Long> crashed = new DurableSkipListSet<>(directory, DurableSkipListSet.Codec.longs(), 1000, 0);
+        for(long i = 0; i < 500; i++){
+            crashed.add(i);
+            model.add(i);
+        }
+        crashed.removeRange(100L, 200L);
+        model.subSet(100L, 200L).clear();
+        crashed.remove(300L);
+        model.remove(300L);
+        crashed.sync();
+
+        try(DurableSkipListSet<Long> reopened = open()){
+            assertEquals(model, new TreeSet<>(reopened));
+        }
+    }
+
+
+    @Test
+    void tornLastFrameIsCutOff() throws IOException {
+        TreeSet<Long> model = new TreeSet<>();
+        try(DurableSkipListSet<Long> set = open()){
+            for(long i = 0; i < 100; i++){
+                set.add(i);
+                model.add(i);
+            }
+        }
+
+        Path last = logs().get(logs().size() - 1);
+        long good = Files.size(last);
+        ByteBuffer torn = ByteBuffer.allocate(12).putInt(1000).putInt(42).putInt(7);  //a header and 4 of its 1000 bytes
+        torn.flip();
+        try(FileChannel channel = FileChannel.open(last, StandardOpenOption.APPEND)){
+            channel.write(torn);
+        }
+
+        try(DurableSkipListSet<Long> set = open()){
+            assertEquals(model, new TreeSet<>(set));
+            assertEquals(good, Files.size(last));
+            set.add(1000L);
+            model.add(1000L);
+        }
+        try(DurableSkipListSet<Long> set = open()){
+            assertEquals(model, new TreeSet<>(set));
+        }
+    }
+
+
+    @Test
+    void corruptLogBeforeTheLastFailsToOpen() throws IOException {
+        try(DurableSkipListSet<Long> set = open()){
+            for(long i = 0; i < 100; i++){
+                set.add(i);
+            }
+        }
+        try(DurableSkipListSet<Long> set = open()){ //every open starts a new log
+            set.add(1000L);
+        }
+
+        List<Path> logs = logs();
+        assertEquals(2, logs.size());
+        Path first = logs.get(0);
+        byte[] bytes = Files.readAllBytes(first);
+        bytes[bytes.length - 1] ^= 1;   //inside the last frame, its CRC doesn't match anymore
+        Files.write(first, bytes);
+
+        IOException e = assertThrows(IOException.class, this::open);
+        assertTrue(e.getMessage().contains("corrupt"), e.getMessage());
+    }
+
+
+    @Test
+    void crashBetweenRenameAndLogDeletion() throws IOException {
+        Path saved = Files.createTempDirectory("durable-logs");
+        TreeSet<Long> model = new TreeSet<>();
+        try(DurableSkipListSet<Long> set = open()){
+            for(long i = 0; i < 200; i++){
+                set.add(i);
+                model.add(i);
+            }
+            set.remove(50L);
+            model.remove(50L);
+            set.sync();
+            for(Path log : logs()){
+                Files.copy(log, saved.resolve(log.getFileName()));
+            }
+
+            set.checkpoint();
+            set.add(50L);       //only in the new log
+            model.add(50L);
+            set.remove(0L);
+            model.remove(0L);
+        }
+
+        //As if the process died before it deleted the logs the checkpoint has
+        try(Stream<Path> files = Files.list(saved)){
+            for(Path log : files.toList()){
+                Files.copy(log, directory.resolve(log.getFileName()));
+            }
+        }
+
+        try(DurableSkipListSet<Long> set = open()){
+            assertEquals(model, new TreeSet<>(set));
+        }
+        try(Stream<Path> files = Files.list(saved)){
+            for(Path log : files.toList()){
+                assertFalse(Files.exists(directory.resolve(log.getFileName())), log.getFileName() + " was not deleted");
+            }
+        }
+    }
+
+
+    @Test
+    void backgroundCheckpoints() throws IOException {
+        TreeSet<Long> model = new TreeSet<>();
+        try(DurableSkipListSet<Long> set = new DurableSkipListSet<>(directory, DurableSkipListSet.Codec.longs(), 16, 100)){
+            for(long i = 0; i < 5000; i++){
+                set.add(i);
+                model.add(i);
+                if(i % 3 == 0){
+                    set.remove(i / 2);
+                    model.remove(i / 2);
+                }
+            }
+        }
+        assertTrue(Files.exists(directory.resolve("checkpoint")));
+        assertTrue(logs().size() < 5000 / 100);
+
+        try(DurableSkipListSet<Long> set = open()){
+            assertEquals(model, new TreeSet<>(set));
+        }
+    }
+}
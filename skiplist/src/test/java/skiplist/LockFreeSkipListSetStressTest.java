@@ -0,0 +1,148 @@
+package skiplist;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+
+
+/*
+*   Writers on keys of their own and on keys every one of them fights over,
+*   with a reader walking the set and its views the whole time
+*
+*   Each writer keeps a TreeSet of its own keys, the shared ones end the same
+*   way whoever wins because the last round only moves them one way
+*
+* */
+class LockFreeSkipListSetStressTest {
+
+
+    private static final int WRITERS = 4;
+    private static final int OWN_KEYS = 2000;       //keys of a writer start at its index times this
+    private static final int SHARED_KEYS = 500;     //-SHARED_KEYS until -1, every writer uses them
+    private static final int OPERATIONS = 50000;
+
+
+    @Test
+    void writersAndReaderAgreeWithTreeSet() throws Exception {
+        LockFreeSkipListSet<Integer> set = new LockFreeSkipListSet<>();
+        List<TreeSet<Integer>> models = new ArrayList<>();
+        for(int i = 0; i < WRITERS; i++){
+            models.add(new TreeSet<>());
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(WRITERS + 1);
+        CyclicBarrier lastRound = new CyclicBarrier(WRITERS);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        try{
+            List<Future<?>> writers = new ArrayList<>();
+            for(int i = 0; i < WRITERS; i++){
+                int writer = i;
+                writers.add(pool.submit(() -> {
+                    write(set, models.get(writer), writer, lastRound);
+                    return null;
+                }));
+            }
+            Future<Integer> reader = pool.submit(() -> read(set, writing));
+
+            for(Future<?> writer : writers){
+                writer.get(60, TimeUnit.SECONDS);
+            }
+            writing.set(false);
+            assertTrue(reader.get(60, TimeUnit.SECONDS) > 0);
+        }finally{
+            pool.shutdownNow();
+        }
+
+        TreeSet<Integer> model = new TreeSet<>();
+        models.forEach(model::addAll);
+        for(int key = -SHARED_KEYS; key < 0; key++){
+            if((key & 1) != 0){
+                model.add(key);
+            }
+        }
+
+        assertEquals(model, new TreeSet<>(set));
+        assertEquals(model.size(), set.size());
+        assertEquals(model.first(), set.first());
+        assertEquals(model.last(), set.last());
+        for(int key = -SHARED_KEYS; key < WRITERS * OWN_KEYS; key++){
+            assertEquals(model.contains(key), set.contains(key), "contains " + key);
+        }
+
+        assertEquals(model.headSet(0), new TreeSet<>(set.headSet(0)));
+        assertEquals(model.tailSet(OWN_KEYS), new TreeSet<>(set.tailSet(OWN_KEYS)));
+        SortedSet<Integer> range = set.subSet(OWN_KEYS / 2, 3 * OWN_KEYS / 2);
+        SortedSet<Integer> expected = model.subSet(OWN_KEYS / 2, 3 * OWN_KEYS / 2);
+        assertEquals(expected, new TreeSet<>(range));
+        assertEquals(expected.size(), range.size());
+        assertEquals(expected.first(), range.first());
+        assertEquals(expected.last(), range.last());
+    }
+
+
+    /*
+    *   Random adds and removes, then every shared key goes to where it has to end
+    * */
+    private static void write(LockFreeSkipListSet<Integer> set, TreeSet<Integer> model, int writer,
+                              CyclicBarrier lastRound) throws Exception {
+        Random random = new Random(writer);
+        int base = writer * OWN_KEYS;
+        for(int i = 0; i < OPERATIONS; i++){
+            boolean shared = random.nextInt(4) == 0;
+            int key = shared ? -1 - random.nextInt(SHARED_KEYS) : base + random.nextInt(OWN_KEYS);
+            if(random.nextBoolean()){
+                boolean added = set.add(key);
+                if(!shared){
+                    assertEquals(model.add(key), added, "add " + key);
+                }
+            }else{
+                boolean removed = set.remove(key);
+                if(!shared){
+                    assertEquals(model.remove(key), removed, "remove " + key);
+                }
+            }
+        }
+
+        lastRound.await(60, TimeUnit.SECONDS);
+        for(int key = -SHARED_KEYS; key < 0; key++){
+            if((key & 1) != 0){
+                set.add(key);
+            }else{
+                set.remove(key);
+            }
+        }
+    }
+
+
+    /*
+    *   Walks the set and a few views while the writers run, everything it
+    *   sees has to be in order and inside the bounds. Returns the walks it made
+    * */
+    private static int read(LockFreeSkipListSet<Integer> set, AtomicBoolean writing){
+        int walks = 0;
+        do{
+            ascending(set, null, null);
+            ascending(set.headSet(0), null, 0);
+            ascending(set.tailSet(OWN_KEYS), OWN_KEYS, null);
+            ascending(set.subSet(-SHARED_KEYS / 2, OWN_KEYS / 2), -SHARED_KEYS / 2, OWN_KEYS / 2);
+            walks++;
+        }while (writing.get());
+        return walks;
+    }
+
+    private static void ascending(Set<Integer> view, Integer lo, Integer hi){
+        Integer previous = null;
+        for(Integer key : view){
+            if(previous != null){
+                assertTrue(previous < key, previous + " before " + key);
+            }
+            assertTrue(lo == null || key >= lo, key + " below " + lo);
+            assertTrue(hi == null || key < hi, key + " not below " + hi);
+            previous = key;
+        }
+    }
+}
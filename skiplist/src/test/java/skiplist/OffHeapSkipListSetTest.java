@@ -0,0 +1,146 @@
+package skiplist;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.*;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+
+/*
+*   The file of an OffHeapSkipListSet: growing, reusing removed items,
+*   clearing and opening it again
+*
+* */
+class OffHeapSkipListSetTest {
+
+
+    private static final int INITIAL_CAPACITY = 1 << 20;   //what a new file is mapped with
+    private static final int TOP_AT = 16;                   //header field, where the next new item goes
+
+
+    @TempDir
+    Path directory;
+
+
+    private static void assertSame(TreeSet<Long> model, OffHeapSkipListSet set){
+        assertEquals(model.size(), set.size());
+        List<Long> keys = new ArrayList<>();
+        for(PrimitiveIterator.OfLong it = set.iterator(); it.hasNext(); ){
+            keys.add(it.nextLong());
+        }
+        assertEquals(new ArrayList<>(model), keys);
+    }
+
+    //Reads where the next new item would go, from the file itself
+    private static int top(Path file) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+        try(FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)){
+            channel.read(header, TOP_AT);
+        }
+        return header.getInt(0);
+    }
+
+
+    @Test
+    void reopensAfterGrowingPastInitialCapacity() throws IOException {
+        Path file = directory.resolve("grown.skip");
+        TreeSet<Long> model = new TreeSet<>();
+        Random random = new Random(1);
+        try(OffHeapSkipListSet set = new OffHeapSkipListSet(file)){
+            while (model.size() < 200000){
+                long key = random.nextLong();
+                assertEquals(model.add(key), set.add(key));
+            }
+        }
+        assertTrue(Files.size(file) > INITIAL_CAPACITY, "file is " + Files.size(file) + " bytes");
+
+        try(OffHeapSkipListSet set = new OffHeapSkipListSet(file)){
+            assertSame(model, set);
+            assertEquals(model.first(), set.first());
+            assertEquals(model.last(), set.last());
+            for(int i = 0; i < 1000; i++){
+                long key = random.nextLong();
+                assertEquals(model.add(key), set.add(key));
+                long old = model.first();
+                assertEquals(model.remove(old), set.remove(old));
+            }
+            assertSame(model, set);
+        }
+    }
+
+
+    @Test
+    void removedItemsAreReused() throws IOException {
+        Path file = directory.resolve("reused.skip");
+        try(OffHeapSkipListSet set = new OffHeapSkipListSet(file)){
+            for(long key = 0; key < 20000; key++){
+                set.add(key);
+            }
+            set.force();
+            int used = top(file);
+
+            for(long key = 0; key < 20000; key++){
+                set.remove(key);
+            }
+            assertEquals(0, set.size());
+            for(long key = 20000; key < 40000; key++){
+                set.add(key);
+            }
+            set.force();
+
+            //Heights are random, so only the few items of a height there were
+            //fewer of the first time come from the end of the file
+            int grown = top(file) - used;
+            assertTrue(grown < used / 20, "grew " + grown + " bytes after " + used);
+            assertEquals(20000, set.size());
+            assertEquals(20000L, set.first());
+            assertEquals(39999L, set.last());
+        }
+    }
+
+
+    @Test
+    void clearThenReopen() throws IOException {
+        Path file = directory.resolve("cleared.skip");
+        try(OffHeapSkipListSet set = new OffHeapSkipListSet(file)){
+            for(long key = 0; key < 10000; key++){
+                set.add(key);
+            }
+            set.clear();
+            assertTrue(set.isEmpty());
+        }
+        try(OffHeapSkipListSet set = new OffHeapSkipListSet(file)){
+            assertTrue(set.isEmpty());
+            assertFalse(set.contains(5L));
+            set.add(7L);
+            set.add(3L);
+        }
+        try(OffHeapSkipListSet set = new OffHeapSkipListSet(file)){
+            assertSame(new TreeSet<>(List.of(3L, 7L)), set);
+        }
+    }
+
+
+    @Test
+    void rejectsFilesThatAreNotSkipLists() throws IOException {
+        Path wrongMagic = directory.resolve("wrong.skip");
+        try(OffHeapSkipListSet set = new OffHeapSkipListSet(wrongMagic)){
+            set.add(1L);
+        }
+        try(FileChannel channel = FileChannel.open(wrongMagic, StandardOpenOption.WRITE)){
+            channel.write(ByteBuffer.wrap(new byte[]{'N', 'O', 'P', 'E'}), 0);
+        }
+        assertThrows(IOException.class, () -> new OffHeapSkipListSet(wrongMagic));
+
+        Path tooSmall = directory.resolve("small.skip");
+        Files.write(tooSmall, new byte[]{1, 2, 3});
+        assertThrows(IOException.class, () -> new OffHeapSkipListSet(tooSmall));
+    }
+}
@@ -0,0 +1,70 @@
+package skiplist;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import org.junit.jupiter.api.Test;
+
+
+/*
+*   A list nobody writes to can be read from many threads at once,
+*   finger search on or off, every answer has to be right
+*
+* */
+class SkipListSetSharedReadTest {
+
+
+    private static final int SIZE = 100000;     //keys are 0, 2, 4, ... so odd ones are misses
+    private static final int READERS = 4;
+    private static final int READS = 200000;
+
+
+    @Test
+    void readersWithoutFinger() throws Exception {
+        read(false);
+    }
+
+    @Test
+    void readersWithFinger() throws Exception {
+        read(true);
+    }
+
+
+    private static void read(boolean finger) throws Exception {
+        SkipListSet<Integer> set = new SkipListSet<>();
+        for(int i = 0; i < SIZE; i++){
+            set.add(2 * i);
+        }
+        set.setFingerSearch(finger);
+
+        ExecutorService pool = Executors.newFixedThreadPool(READERS);
+        try{
+            List<Future<?>> readers = new ArrayList<>();
+            for(int i = 0; i < READERS; i++){
+                long seed = i;
+                readers.add(pool.submit(() -> {
+                    Random random = new Random(seed);
+                    for(int j = 0; j < READS; j++){
+                        int key = random.nextInt(2 * SIZE);
+                        boolean hit = (key & 1) == 0;
+                        int less = (key + 1) / 2;
+                        assertEquals(hit, set.contains(key), "contains " + key);
+                        assertEquals(less, set.rank(key), "rank " + key);
+                        assertEquals(hit ? less : -1, set.indexOf(key), "indexOf " + key);
+                        assertEquals(key & ~1, (int) set.floor(key), "floor " + key);
+                        Integer ceiling = set.ceiling(key);
+                        assertEquals(key + 1 < 2 * SIZE ? (Integer) ((key + 1) & ~1) : null, ceiling, "ceiling " + key);
+                    }
+                    return null;
+                }));
+            }
+            for(Future<?> reader : readers){
+                reader.get(120, TimeUnit.SECONDS);
+            }
+        }finally{
+            pool.shutdownNow();
+        }
+    }
+}